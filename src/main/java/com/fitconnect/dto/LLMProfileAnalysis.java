@@ -0,0 +1,12 @@
+package com.fitconnect.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class LLMProfileAnalysis {
+    public String summary;
+    public List<String> skills;
+}
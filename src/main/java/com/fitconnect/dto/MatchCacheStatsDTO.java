@@ -0,0 +1,17 @@
+package com.fitconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchCacheStatsDTO {
+    public long hitCount;
+    public long missCount;
+    public long evictionCount;
+    public double hitRate;
+    public long size;
+    public long poolVersion;
+}
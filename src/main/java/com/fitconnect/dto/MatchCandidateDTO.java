@@ -0,0 +1,29 @@
+package com.fitconnect.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Just the columns matching needs from a professional; loaded by projection instead of full entities.
+@Data
+@NoArgsConstructor
+public class MatchCandidateDTO {
+    public Long id;
+    public String name;
+    public String profession;
+    public Integer yearsOfExperience;
+    public String summarizedSkills;
+    public String aboutYou;
+    public List<String> skills = new ArrayList<>();
+
+    // Used by the JPQL constructor expression in MatchCandidateLoader
+    public MatchCandidateDTO(Long id, String name, String profession, Integer yearsOfExperience, String summarizedSkills, String aboutYou) {
+        this.id = id;
+        this.name = name;
+        this.profession = profession;
+        this.yearsOfExperience = yearsOfExperience;
+        this.summarizedSkills = summarizedSkills;
+        this.aboutYou = aboutYou;
+    }
+}
@@ -0,0 +1,18 @@
+package com.fitconnect.dto;
+
+import com.fitconnect.entity.MatchJobStatus;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class MatchJobDTO {
+    public Long jobId;
+    public Long serviceRequestId;
+    public MatchJobStatus status;
+    public MatchResponseDTO result; // Only set once status is COMPLETED
+    public String errorMessage;
+    public LocalDateTime createdAt;
+    public LocalDateTime completedAt;
+}
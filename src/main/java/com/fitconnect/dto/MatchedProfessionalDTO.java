@@ -1,6 +1,7 @@
 package com.fitconnect.dto;
 
 import com.fitconnect.entity.Professional;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.Data;
@@ -28,4 +29,14 @@ public class MatchedProfessionalDTO {
             this.skills = pro.skills.stream().map(skill -> skill.name).collect(Collectors.toList());
         }
     }
+
+    public MatchedProfessionalDTO(MatchCandidateDTO candidate) {
+        this.id = candidate.id;
+        this.name = candidate.name;
+        this.profession = candidate.profession;
+        this.yearsOfExperience = candidate.yearsOfExperience;
+        this.aboutYouSummary = candidate.aboutYou != null && candidate.aboutYou.length() > 150 ? candidate.aboutYou.substring(0, 150) + "..." : candidate.aboutYou;
+        this.summarizedSkills = candidate.summarizedSkills;
+        this.skills = new ArrayList<>(candidate.skills);
+    }
 }
@@ -36,12 +36,16 @@ public class ProfessionalFullProfileDTO {
         public Long id;
         public String fileName;
         public String fileType;
+        public Long fileSize;
+        public String downloadUrl;
         // Not exposing storagePath to the professional directly unless needed
 
         public DocumentInfoDTO(ProfessionalDocument doc) {
             this.id = doc.getId();
             this.fileName = doc.getFileName();
             this.fileType = doc.getFileType();
+            this.fileSize = doc.getFileSize();
+            this.downloadUrl = "/api/documents/" + doc.getId() + "/content";
         }
     }
 
@@ -0,0 +1,26 @@
+package com.fitconnect.dto;
+
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.RescreenRunStatus;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RescreenProgressDTO {
+    public Long runId;
+    public RescreenRunStatus status;
+    public ProfileStatus profileStatus;
+    public LocalDateTime screenedBefore;
+    public long total; // Matching professionals when the run started
+    public long done;
+    public long failed;
+    public long remaining;
+    public Long lastProcessedId;
+    public String lastError;
+    public LocalDateTime startedAt;
+    public LocalDateTime updatedAt;
+    public LocalDateTime finishedAt;
+    public LocalDateTime estimatedCompletionAt; // Null until there is a processing rate to extrapolate from
+}
@@ -0,0 +1,14 @@
+package com.fitconnect.dto;
+
+import com.fitconnect.entity.ProfileStatus;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RescreenRequestDTO {
+    public ProfileStatus profileStatus; // Optional: only professionals in this status
+    public LocalDateTime screenedBefore; // Optional: only professionals last screened before this time, or never
+    public Integer batchSize; // Optional: defaults to fitconnect.rescreen.batch-size
+}
@@ -0,0 +1,29 @@
+package com.fitconnect.entity;
+
+import jakarta.persistence.*;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Tika output keyed by the SHA-256 of the document bytes, so identical files are parsed once across all professionals.
+@Entity
+@Table(name = "extracted_texts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExtractedText extends PanacheEntityBase {
+
+    @Id
+    @Column(length = 64)
+    public String contentHash; // Hex SHA-256 of the document bytes
+
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    public byte[] compressedText; // GZIP of the UTF-8 text
+
+    public int textLength;
+
+    public LocalDateTime extractedAt;
+}
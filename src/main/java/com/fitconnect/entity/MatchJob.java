@@ -0,0 +1,59 @@
+package com.fitconnect.entity;
+
+import jakarta.persistence.*;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "match_jobs", indexes = @Index(name = "idx_match_jobs_service_request", columnList = "service_request_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MatchJob extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_request_id", nullable = false)
+    public ServiceRequest serviceRequest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    public MatchJobStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    public String resultJson; // Serialized MatchResponseDTO, so reloads don't re-run the LLM
+
+    @Column(length = 1000)
+    public String errorMessage;
+
+    // MatchPool version when the run started; a result from another version may miss professionals
+    public Long poolVersion;
+
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+    public LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (status == null) {
+            status = MatchJobStatus.PENDING;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == MatchJobStatus.COMPLETED || status == MatchJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.fitconnect.entity;
+
+public enum MatchJobStatus {
+    PENDING,    // Accepted, waiting for a matching worker
+    RUNNING,    // Matching (LLM round trip) in progress
+    COMPLETED,  // Result stored in resultJson
+    FAILED      // errorMessage explains why
+}
@@ -0,0 +1,24 @@
+package com.fitconnect.entity;
+
+import jakarta.persistence.*;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Single row counting changes to what the matcher sees in the verified pool; shared by every node and restarts.
+@Entity
+@Table(name = "match_pool")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MatchPool extends PanacheEntityBase {
+
+    public static final long ID = 1L;
+
+    @Id
+    public Long id;
+
+    @Column(nullable = false)
+    public long version;
+}
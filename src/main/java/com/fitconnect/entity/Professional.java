@@ -1,6 +1,7 @@
 package com.fitconnect.entity;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import lombok.Getter;
@@ -35,6 +36,16 @@ public class Professional extends User {
     @Column(columnDefinition = "TEXT")
     public String summarizedSkills; // To be populated by LLM
 
+    public LocalDateTime lastScreenedAt; // Last successful LLM screening
+
+    // Hash of the profile fields and documents that screening sent to the LLM; see ScreeningFingerprint
+    @Column(name = "screening_fingerprint", length = 64)
+    public String screeningFingerprint;
+
+    // Hash of what the matcher sees of this professional; a change to it moves MatchPool.version
+    @Column(name = "matcher_state_hash", length = 64)
+    public String matcherStateHash;
+
     @OneToMany(mappedBy = "professional", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     public List<ProfessionalDocument> documents;
 
@@ -1,6 +1,5 @@
 package com.fitconnect.entity;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import lombok.Getter;
@@ -9,7 +8,7 @@ import lombok.Setter;
 
 @Getter
 @Entity
-@Table(name = "professional_documents")
+@Table(name = "professional_documents", indexes = @Index(name = "idx_professional_documents_hash", columnList = "content_hash"))
 @Setter
 @NoArgsConstructor
 public class ProfessionalDocument extends PanacheEntityBase {
@@ -24,12 +23,15 @@ public class ProfessionalDocument extends PanacheEntityBase {
 
     private String fileName;
     private String fileType; // e.g., application/pdf, image/jpeg
-    private String storagePath;
+    private String storagePath; // Legacy: file under file-uploads; new documents live in the DocumentStore
 
-    @JsonIgnore
-    @Lob // For large binary data
-    @Column(columnDefinition="BLOB")
-    private byte[] fileContent;
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // Hex SHA-256 of the file bytes; key into the DocumentStore and extracted_texts
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    // No binary data here: content is in the DocumentStore, or in ProfessionalDocumentContent for legacy rows.
 
     // PanacheEntityBase provides id getter/setter.
     // Lombok @Getter @Setter will handle getters and setters for other fields.
@@ -0,0 +1,34 @@
+package com.fitconnect.entity;
+
+import jakarta.persistence.*;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import java.sql.Blob;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Bytes of documents registered before the DocumentStore, kept out of professional_documents so loading
+// document metadata never touches them. Read as a stream through the Blob, inside a transaction.
+@Entity
+@Table(name = "professional_document_contents")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProfessionalDocumentContent extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "document_id")
+    public Long documentId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "document_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    public ProfessionalDocument document;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB", nullable = false)
+    public Blob content;
+}
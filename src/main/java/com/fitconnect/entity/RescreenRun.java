@@ -0,0 +1,69 @@
+package com.fitconnect.entity;
+
+import jakarta.persistence.*;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Bulk re-screening started from the admin API; the checkpoint lets a run resume after a restart.
+@Entity
+@Table(name = "rescreen_runs", indexes = {
+    @Index(name = "idx_rescreen_runs_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RescreenRun extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    public RescreenRunStatus status;
+
+    // Selection criteria; null means "any"
+    @Enumerated(EnumType.STRING)
+    public ProfileStatus profileStatus;
+    public LocalDateTime screenedBefore; // Also matches professionals never screened
+
+    public int batchSize;
+
+    // Professionals are processed in id order; everything up to this id is done.
+    @Column(name = "last_processed_id", nullable = false)
+    public Long lastProcessedId;
+
+    public long total;
+    public long done;
+    public long failed;
+
+    @Column(length = 1000)
+    public String lastError;
+
+    public String leaseOwner;
+    public LocalDateTime leaseExpiresAt;
+
+    public LocalDateTime startedAt;
+    public LocalDateTime updatedAt;
+    public LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+        updatedAt = startedAt;
+        if (status == null) {
+            status = RescreenRunStatus.RUNNING;
+        }
+        if (lastProcessedId == null) {
+            lastProcessedId = 0L;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
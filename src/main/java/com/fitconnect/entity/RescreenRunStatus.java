@@ -0,0 +1,7 @@
+package com.fitconnect.entity;
+
+public enum RescreenRunStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,62 @@
+package com.fitconnect.entity;
+
+import jakarta.persistence.*;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "screening_tasks", indexes = {
+    @Index(name = "idx_screening_tasks_claim", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_screening_tasks_professional", columnList = "professional_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScreeningTask extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "professional_id", nullable = false)
+    public Long professionalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    public ScreeningTaskStatus status;
+
+    public int attempts; // Failed attempts so far, including leases that expired
+
+    @Column(name = "next_attempt_at", nullable = false)
+    public LocalDateTime nextAttemptAt;
+
+    public String leaseOwner;
+    public LocalDateTime leaseExpiresAt;
+
+    @Column(length = 1000)
+    public String lastError;
+
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+    public LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (status == null) {
+            status = ScreeningTaskStatus.PENDING;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.fitconnect.entity;
+
+public enum ScreeningTaskStatus {
+    PENDING,    // Waiting for a worker, or for nextAttemptAt after a failure
+    RUNNING,    // Claimed by leaseOwner until leaseExpiresAt
+    COMPLETED,  // Screening finished
+    DEAD        // Gave up after the maximum number of attempts; lastError explains why
+}
@@ -3,6 +3,7 @@ package com.fitconnect.entity;
 import jakarta.persistence.*;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import java.util.List;
+import java.util.Locale;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,7 +11,7 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 @Entity
-@Table(name = "skills")
+@Table(name = "skills", indexes = @Index(name = "idx_skills_normalized_name", columnList = "normalized_name", unique = true))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +26,20 @@ public class Skill extends PanacheEntityBase {
     @Column(unique = true, nullable = false)
     public String name; // e.g., "Yoga Instruction", "Strength Training", "Nutrition Planning"
 
+    @Column(name = "normalized_name", nullable = false)
+    public String normalizedName; // normalize(name); what skill lookups match on
+
     @ManyToMany(mappedBy = "skills", fetch = FetchType.LAZY)
     public List<Professional> professionals;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        normalizedName = normalize(name);
+    }
+
+    /** Lower-cased with whitespace collapsed, so "Strength  training" and "strength Training" are one skill. */
+    public static String normalize(String name) {
+        return name == null ? null : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,11 @@
+package com.fitconnect.llm;
+
+// Thrown before a model call when the configured token budget is used up, so callers can degrade immediately.
+public class LlmBudgetExceededException extends LlmCallRejectedException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LlmBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.fitconnect.llm;
+
+// A model call refused locally (budget, bulkhead, rate limit or open circuit) without waiting on the provider.
+public class LlmCallRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LlmCallRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,262 @@
+package com.fitconnect.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker, token-bucket rate limiter and bulkhead in front of one AI service.
+ * Every rejection is immediate or bounded by a short wait, so callers never sit out the provider timeout
+ * when the model is throttling or down. See {@link LlmGuards} for the configured instances.
+ */
+public class LlmGuard {
+
+    private static final Logger LOG = Logger.getLogger(LlmGuard.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public record Settings(
+        int maxConcurrent,
+        int queueSize,
+        Duration queueTimeout,
+        double permitsPerSecond,
+        int burst,
+        Duration rateLimitTimeout,
+        int windowSize,
+        int minimumCalls,
+        double failureRatio,
+        Duration openDuration) {
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final MeterRegistry registry;
+
+    // Bulkhead
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    // Token bucket
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    // Circuit breaker: outcomes of the last windowSize calls, true = failure
+    private final Deque<Boolean> outcomes = new ArrayDeque<>();
+    private int failuresInWindow;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public LlmGuard(String name, Settings settings, MeterRegistry registry) {
+        this.name = name;
+        this.settings = settings;
+        this.registry = registry;
+        this.permits = new Semaphore(settings.maxConcurrent(), true);
+        this.tokens = settings.burst();
+
+        Gauge.builder("fitconnect.llm.guard.active", active, AtomicInteger::get)
+            .description("Model calls currently in flight")
+            .tag("guard", name)
+            .register(registry);
+        Gauge.builder("fitconnect.llm.guard.queued", queued, AtomicInteger::get)
+            .description("Model calls waiting for a bulkhead slot")
+            .tag("guard", name)
+            .register(registry);
+        Gauge.builder("fitconnect.llm.guard.circuit.state", this, guard -> guard.state().ordinal())
+            .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+            .tag("guard", name)
+            .register(registry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        boolean trial = acquireCircuit();
+        boolean released = false;
+        try {
+            acquireRateLimit();
+            acquireBulkhead();
+        } catch (LlmCallRejectedException e) {
+            if (trial) {
+                releaseTrial();
+            }
+            throw e;
+        }
+
+        active.incrementAndGet();
+        try {
+            T result = call.get();
+            recordOutcome(false, trial);
+            released = true;
+            count("success");
+            return result;
+        } catch (RuntimeException e) {
+            recordOutcome(true, trial);
+            released = true;
+            count(isThrottled(e) ? "throttled" : "failure");
+            throw e;
+        } finally {
+            if (!released && trial) {
+                releaseTrial();
+            }
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= settings.openDuration().toNanos()) {
+            state = State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean acquireCircuit() {
+        switch (state()) {
+            case OPEN:
+                reject("circuit_open", "circuit open");
+                return false;
+            case HALF_OPEN:
+                // One trial call decides whether the circuit closes again.
+                if (trialInFlight) {
+                    reject("circuit_open", "circuit half-open, trial call in flight");
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    private synchronized void recordOutcome(boolean failure, boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+            if (failure) {
+                open();
+            } else {
+                state = State.CLOSED;
+                outcomes.clear();
+                failuresInWindow = 0;
+                LOG.infof("LLM circuit '%s' closed.", name);
+            }
+            return;
+        }
+        outcomes.addLast(failure);
+        if (failure) {
+            failuresInWindow++;
+        }
+        if (outcomes.size() > settings.windowSize() && outcomes.removeFirst()) {
+            failuresInWindow--;
+        }
+        if (state == State.CLOSED && outcomes.size() >= settings.minimumCalls()
+                && failuresInWindow >= settings.failureRatio() * outcomes.size()) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        outcomes.clear();
+        failuresInWindow = 0;
+        LOG.warnf("LLM circuit '%s' opened for %s.", name, settings.openDuration());
+    }
+
+    private void acquireRateLimit() {
+        long deadline = System.nanoTime() + settings.rateLimitTimeout().toNanos();
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) ((1 - tokens) / settings.permitsPerSecond() * 1_000_000_000L);
+            }
+            if (System.nanoTime() + waitNanos > deadline) {
+                reject("rate_limited", "rate limit reached");
+            }
+            sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(settings.burst(), tokens + (now - lastRefillNanos) / 1_000_000_000.0 * settings.permitsPerSecond());
+        lastRefillNanos = now;
+    }
+
+    private void acquireBulkhead() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (queued.incrementAndGet() > settings.queueSize()) {
+            queued.decrementAndGet();
+            reject("bulkhead_full", "too many concurrent calls");
+        }
+        try {
+            if (!permits.tryAcquire(settings.queueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                reject("bulkhead_timeout", "timed out waiting for a free slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject("bulkhead_timeout", "interrupted waiting for a free slot");
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void reject(String reason, String description) {
+        Counter.builder("fitconnect.llm.guard.rejected")
+            .description("Model calls refused by a guard")
+            .tag("guard", name)
+            .tag("reason", reason)
+            .register(registry)
+            .increment();
+        throw new LlmCallRejectedException("LLM " + name + " unavailable: " + description + ".");
+    }
+
+    private void count(String outcome) {
+        Counter.builder("fitconnect.llm.guard.calls")
+            .description("Model calls that passed the guard, by outcome")
+            .tag("guard", name)
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment();
+    }
+
+    // The provider answers 429 when throttling; the client surfaces it as a RateLimitException or in the message.
+    static boolean isThrottled(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getClass().getSimpleName().contains("RateLimit") || (t.getMessage() != null && t.getMessage().contains("429"))) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.max(nanos, 1_000_000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmCallRejectedException("Interrupted waiting for the rate limiter.");
+        }
+    }
+}
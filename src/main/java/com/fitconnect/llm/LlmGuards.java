@@ -0,0 +1,57 @@
+package com.fitconnect.llm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+
+import java.time.Duration;
+
+/**
+ * One {@link LlmGuard} per AI service, configured under {@code fitconnect.llm.guard.<name>.*}
+ * so matching and screening can't starve each other of provider capacity.
+ */
+@ApplicationScoped
+public class LlmGuards {
+
+    @Inject
+    Config config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private LlmGuard matcher;
+    private LlmGuard analyzer;
+
+    @PostConstruct
+    void init() {
+        matcher = new LlmGuard("matcher", settings("matcher"), registry);
+        analyzer = new LlmGuard("analyzer", settings("analyzer"), registry);
+    }
+
+    /** Guards {@link ProfessionalMatcherAiService}. */
+    public LlmGuard matcher() {
+        return matcher;
+    }
+
+    /** Guards {@link ProfessionalProfileAnalyzer}. */
+    public LlmGuard analyzer() {
+        return analyzer;
+    }
+
+    private LlmGuard.Settings settings(String name) {
+        String prefix = "fitconnect.llm.guard." + name + ".";
+        return new LlmGuard.Settings(
+            config.getOptionalValue(prefix + "max-concurrent", Integer.class).orElse(4),
+            config.getOptionalValue(prefix + "queue-size", Integer.class).orElse(16),
+            config.getOptionalValue(prefix + "queue-timeout", Duration.class).orElse(Duration.ofSeconds(10)),
+            config.getOptionalValue(prefix + "permits-per-second", Double.class).orElse(2.0),
+            config.getOptionalValue(prefix + "burst", Integer.class).orElse(5),
+            config.getOptionalValue(prefix + "rate-limit-timeout", Duration.class).orElse(Duration.ofSeconds(2)),
+            config.getOptionalValue(prefix + "window-size", Integer.class).orElse(20),
+            config.getOptionalValue(prefix + "minimum-calls", Integer.class).orElse(5),
+            config.getOptionalValue(prefix + "failure-ratio", Double.class).orElse(0.5),
+            config.getOptionalValue(prefix + "open-duration", Duration.class).orElse(Duration.ofSeconds(30)));
+    }
+}
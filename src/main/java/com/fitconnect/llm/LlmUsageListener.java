@@ -0,0 +1,49 @@
+package com.fitconnect.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.output.TokenUsage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Picked up by the langchain4j chat models; runs on the calling thread, so it reports to the call tracked there.
+@ApplicationScoped
+public class LlmUsageListener implements ChatModelListener {
+
+    @Inject
+    LlmUsageTracker usageTracker;
+
+    @Override
+    public void onRequest(ChatModelRequestContext requestContext) {
+        int promptChars = 0;
+        for (ChatMessage message : requestContext.chatRequest().messages()) {
+            promptChars += textLength(message);
+        }
+        usageTracker.recordPrompt(promptChars);
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext responseContext) {
+        TokenUsage usage = responseContext.chatResponse().tokenUsage();
+        if (usage != null) {
+            usageTracker.recordUsage(usage.inputTokenCount(), usage.outputTokenCount());
+        }
+    }
+
+    private static int textLength(ChatMessage message) {
+        String text = null;
+        if (message instanceof SystemMessage) {
+            text = ((SystemMessage) message).text();
+        } else if (message instanceof UserMessage && ((UserMessage) message).hasSingleText()) {
+            text = ((UserMessage) message).singleText();
+        } else if (message instanceof AiMessage) {
+            text = ((AiMessage) message).text();
+        }
+        return text != null ? text.length() : 0;
+    }
+}
@@ -0,0 +1,211 @@
+package com.fitconnect.llm;
+
+import com.fitconnect.service.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.function.Supplier;
+
+/**
+ * Per-method latency, prompt size and token accounting for AI service calls, plus daily and per-minute token budgets.
+ * Budgets are charged with an estimate before the call and corrected with the provider's reported usage afterwards
+ * (see {@link LlmUsageListener}). A call that would start over budget fails fast with {@link LlmBudgetExceededException}.
+ */
+@ApplicationScoped
+public class LlmUsageTracker {
+
+    private static final Logger LOG = Logger.getLogger(LlmUsageTracker.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    // 0 disables the budget.
+    @Inject
+    @ConfigProperty(name = "fitconnect.llm.budget.daily-tokens", defaultValue = "0")
+    long dailyTokenBudget;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.llm.budget.per-minute-tokens", defaultValue = "0")
+    long perMinuteTokenBudget;
+
+    private final ThreadLocal<Call> currentCall = new ThreadLocal<>();
+
+    private LocalDate budgetDay = LocalDate.now(ZoneOffset.UTC);
+    private long dayTokens;
+    private long budgetMinute = currentMinute();
+    private long minuteTokens;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("fitconnect.llm.budget.used", this, tracker -> tracker.usedTokens(false))
+            .description("Tokens charged against the daily budget")
+            .tag("window", "day")
+            .register(registry);
+        Gauge.builder("fitconnect.llm.budget.used", this, tracker -> tracker.usedTokens(true))
+            .description("Tokens charged against the per-minute budget")
+            .tag("window", "minute")
+            .register(registry);
+    }
+
+    /**
+     * Runs one AI service call. {@code promptInput} is the variable text sent to the model and is only used
+     * to estimate the reservation; the exact prompt is measured by the listener. The budget is checked before
+     * {@code call} runs, so wrap the guard in this rather than the other way round; a call the guard refuses
+     * gets its reservation back.
+     */
+    public <T> T track(String method, String promptInput, Supplier<T> call) {
+        int estimatedTokens = TokenEstimator.estimate(promptInput);
+        reserve(method, estimatedTokens);
+
+        Call previous = currentCall.get();
+        Call current = new Call(method, estimatedTokens);
+        currentCall.set(current);
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (LlmCallRejectedException e) {
+            // Refused before anything was sent.
+            outcome = "rejected";
+            charge(-current.unsettledEstimate);
+            current.unsettledEstimate = 0;
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("fitconnect.llm.call.duration")
+                .description("Latency of AI service calls")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+            if (previous != null) {
+                currentCall.set(previous);
+            } else {
+                currentCall.remove();
+            }
+        }
+    }
+
+    /** Called by the listener on the calling thread with the exact prompt about to be sent. */
+    void recordPrompt(int promptChars) {
+        String method = currentMethod();
+        DistributionSummary.builder("fitconnect.llm.prompt.chars")
+            .description("Prompt size in characters")
+            .baseUnit("characters")
+            .tag("method", method)
+            .register(registry)
+            .record(promptChars);
+        DistributionSummary.builder("fitconnect.llm.prompt.tokens.estimated")
+            .description("Estimated prompt size in tokens")
+            .baseUnit("tokens")
+            .tag("method", method)
+            .register(registry)
+            .record(TokenEstimator.estimate(promptChars));
+    }
+
+    /** Called by the listener with the usage reported by the provider. */
+    void recordUsage(Integer inputTokens, Integer outputTokens) {
+        String method = currentMethod();
+        long input = inputTokens != null ? inputTokens : 0;
+        long output = outputTokens != null ? outputTokens : 0;
+        tokenCounter(method, "prompt").increment(input);
+        tokenCounter(method, "completion").increment(output);
+
+        Call call = currentCall.get();
+        long alreadyCharged = 0;
+        if (call != null) {
+            // The first response settles the up-front estimate; retries within the same call are charged in full.
+            alreadyCharged = call.unsettledEstimate;
+            call.unsettledEstimate = 0;
+        }
+        charge(input + output - alreadyCharged);
+    }
+
+    private void reserve(String method, long estimatedTokens) {
+        synchronized (this) {
+            rollWindows();
+            if (dailyTokenBudget > 0 && dayTokens + estimatedTokens > dailyTokenBudget) {
+                reject(method, "daily");
+            }
+            if (perMinuteTokenBudget > 0 && minuteTokens + estimatedTokens > perMinuteTokenBudget) {
+                reject(method, "minute");
+            }
+            dayTokens += estimatedTokens;
+            minuteTokens += estimatedTokens;
+        }
+    }
+
+    private void reject(String method, String window) {
+        Counter.builder("fitconnect.llm.budget.rejected")
+            .description("AI service calls refused because a token budget was exhausted")
+            .tag("method", method)
+            .tag("window", window)
+            .register(registry)
+            .increment();
+        LOG.warnf("Token budget (%s) exhausted; refusing %s.", window, method);
+        throw new LlmBudgetExceededException("LLM token budget (" + window + ") exhausted.");
+    }
+
+    private synchronized void charge(long tokens) {
+        rollWindows();
+        dayTokens = Math.max(0, dayTokens + tokens);
+        minuteTokens = Math.max(0, minuteTokens + tokens);
+    }
+
+    private synchronized double usedTokens(boolean minute) {
+        rollWindows();
+        return minute ? minuteTokens : dayTokens;
+    }
+
+    private void rollWindows() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(budgetDay)) {
+            budgetDay = today;
+            dayTokens = 0;
+        }
+        long minute = currentMinute();
+        if (minute != budgetMinute) {
+            budgetMinute = minute;
+            minuteTokens = 0;
+        }
+    }
+
+    private Counter tokenCounter(String method, String type) {
+        return Counter.builder("fitconnect.llm.tokens")
+            .description("Tokens reported by the model provider")
+            .tag("method", method)
+            .tag("type", type)
+            .register(registry);
+    }
+
+    private String currentMethod() {
+        Call call = currentCall.get();
+        return call != null ? call.method : "untracked";
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private static final class Call {
+        final String method;
+        long unsettledEstimate;
+
+        Call(String method, long unsettledEstimate) {
+            this.method = method;
+            this.unsettledEstimate = unsettledEstimate;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.fitconnect.llm;
 
+import com.fitconnect.dto.LLMProfileAnalysis;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import io.quarkiverse.langchain4j.RegisterAiService;
@@ -12,6 +13,18 @@ public interface ProfessionalProfileAnalyzer {
         Your task is to analyze the provided professional profile information and document text.
         Focus on identifying concrete skills, specializations, years of experience in specific areas,
         and overall expertise.
+
+        Output a JSON object containing:
+        1.  "summary": A concise summary of the professional's expertise, key skills, and specializations,
+            suitable for a quick overview by a potential client or an administrator. Maximum 200 words.
+        2.  "skills": A list of the distinct key skills and specializations, one short name per element.
+
+        Example JSON output format:
+        {
+          "summary": "Certified strength coach with 8 years of experience in athletic conditioning and injury rehabilitation.",
+          "skills": ["Strength Training", "Athletic Conditioning", "Injury Rehabilitation"]
+        }
+        Ensure the output is valid JSON.
         """)
     @UserMessage("""
         Analyze the following professional information:
@@ -23,28 +36,7 @@ public interface ProfessionalProfileAnalyzer {
         ---
         {documentTexts}
         ---
-        Based on all the provided text, please generate a concise summary of the professional's expertise,
-        key skills, and specializations. The summary should be suitable for a quick overview by a potential client
-        or an administrator. Maximum 200 words.
-        """)
-    String summarizeExpertiseAndSkills(String profileData, String documentTexts);
-
-    @SystemMessage("""
-        You are an expert HR analyst. Your task is to extract a list of key skills and specializations
-        from the provided text. Present these as a comma-separated list.
-        For example: Yoga Instruction, Strength Training, Nutrition Planning, Injury Rehabilitation.
-        Only list distinct skills.
-        """)
-    @UserMessage("""
-        Professional Profile Data:
-        ---
-        {profileData}
-        ---
-        Uploaded Document Texts (concatenated):
-        ---
-        {documentTexts}
-        ---
-        Extract the key skills and specializations as a comma-separated list.
+        Provide the summary and skills in the specified JSON format.
         """)
-    String extractSkillsList(String profileData, String documentTexts);
+    LLMProfileAnalysis analyzeProfile(String profileData, String documentTexts);
 }
@@ -1,12 +1,18 @@
 package com.fitconnect.resource;
 
+import com.fitconnect.dto.MatchCacheStatsDTO;
 import com.fitconnect.dto.ProfileVerificationRequest;
+import com.fitconnect.dto.RescreenProgressDTO;
+import com.fitconnect.dto.RescreenRequestDTO;
 import com.fitconnect.entity.Professional;
 import com.fitconnect.service.AdminService;
+import com.fitconnect.service.MatchResultCache;
+import com.fitconnect.service.RescreenService;
 
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -26,6 +32,12 @@ public class AdminResource {
     @Inject
     AdminService adminService;
 
+    @Inject
+    MatchResultCache matchResultCache;
+
+    @Inject
+    RescreenService rescreenService;
+
     @POST
     @Path("/professionals/{id}/verify")
     @RolesAllowed("ADMIN")
@@ -51,4 +63,59 @@ public class AdminResource {
                            .build();
         }
     }
+
+    @GET
+    @Path("/match-cache/stats")
+    @RolesAllowed("ADMIN")
+    public Response getMatchCacheStats() {
+        MatchCacheStatsDTO stats = matchResultCache.stats();
+        return Response.ok(stats).build();
+    }
+
+    // Starts a bulk re-screening run; poll GET /rescreens/{runId} for progress.
+    @POST
+    @Path("/rescreens")
+    @RolesAllowed("ADMIN")
+    public Response startRescreen(RescreenRequestDTO request) {
+        try {
+            RescreenProgressDTO progress = rescreenService.start(request);
+            return Response.accepted(progress).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            LOG.error("Unexpected error starting a re-screening run", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity("An unexpected error occurred.")
+                           .build();
+        }
+    }
+
+    @GET
+    @Path("/rescreens")
+    @RolesAllowed("ADMIN")
+    public Response listRescreens() {
+        return Response.ok(rescreenService.listRuns()).build();
+    }
+
+    @GET
+    @Path("/rescreens/{runId}")
+    @RolesAllowed("ADMIN")
+    public Response getRescreen(@PathParam("runId") Long runId) {
+        try {
+            return Response.ok(rescreenService.getProgress(runId)).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        }
+    }
+
+    @POST
+    @Path("/rescreens/{runId}/cancel")
+    @RolesAllowed("ADMIN")
+    public Response cancelRescreen(@PathParam("runId") Long runId) {
+        try {
+            return Response.ok(rescreenService.cancel(runId)).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        }
+    }
 }
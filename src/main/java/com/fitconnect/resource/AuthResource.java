@@ -19,6 +19,7 @@ import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @Path("/api/auth")
 @Produces(MediaType.APPLICATION_JSON)
@@ -37,6 +38,8 @@ public class AuthResource {
             return Response.status(Response.Status.CREATED).entity(client).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Too many registrations in progress; please retry shortly.").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("Registration failed: " + e.getMessage()).build();
         }
@@ -45,7 +48,13 @@ public class AuthResource {
     @POST
     @Path("/login")
     public Response login(LoginRequest request) {
-        Optional<LoginResponse> loginResponse = authService.login(request);
+        Optional<LoginResponse> loginResponse;
+        try {
+            loginResponse = authService.login(request);
+        } catch (RejectedExecutionException e) {
+            // Password verification is saturated (see PasswordHasher); fail fast instead of piling up.
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Too many sign-ins in progress; please retry shortly.").build();
+        }
         if (loginResponse.isPresent()) {
             return Response.ok(loginResponse.get()).build();
         } else {
@@ -62,6 +71,8 @@ public class AuthResource {
             return Response.status(Response.Status.CREATED).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Too many registrations in progress; please retry shortly.").build();
         } catch (Exception e) {
             // Log the exception for debugging purposes
             // Logger.getLogger(AuthResource.class).error("Professional registration failed", e);
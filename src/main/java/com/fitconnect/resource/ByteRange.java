@@ -0,0 +1,51 @@
+package com.fitconnect.resource;
+
+// A single HTTP byte range resolved against the content size (RFC 9110 section 14.1.2).
+record ByteRange(long offset, long length) {
+
+    /** Marks a Range header that no byte of the content satisfies (416). */
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, 0);
+
+    /**
+     * @return null when the whole content should be sent (no header, or a form we don't serve such as
+     * multiple ranges, which a server may ignore), {@link #UNSATISFIABLE}, or the range to send
+     */
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes.
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                long length = Math.min(suffix, size);
+                return new ByteRange(size - length, length);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, end - start + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    String contentRange(long size) {
+        return "bytes " + offset + "-" + (offset + length - 1) + "/" + size;
+    }
+}
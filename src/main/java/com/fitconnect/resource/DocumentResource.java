@@ -0,0 +1,126 @@
+package com.fitconnect.resource;
+
+import com.fitconnect.service.ProfessionalDocumentService;
+import com.fitconnect.service.ProfessionalDocumentService.DocumentContent;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.PathPart;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+// Downloads of uploaded documents by their owner or an admin. Files on local disk are handed to the
+// HTTP layer as a PathPart, which Vert.x sends with sendfile (FileChannel.transferTo) without copying
+// through the heap; other content is streamed. The content hash is a strong ETag.
+@Path("/api/documents")
+public class DocumentResource {
+
+    private static final Logger LOG = Logger.getLogger(DocumentResource.class);
+
+    @Inject
+    ProfessionalDocumentService documentService;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @GET
+    @Path("/{documentId}/content")
+    @RolesAllowed({"PROFESSIONAL", "ADMIN"})
+    public Response download(@PathParam("documentId") Long documentId,
+                             @HeaderParam("Range") String range,
+                             @HeaderParam("If-Range") String ifRange,
+                             @Context Request request,
+                             @Context SecurityContext ctx) {
+        Long requesterId = null;
+        if (!ctx.isUserInRole("ADMIN")) {
+            try {
+                requesterId = Long.parseLong(jwt.getSubject());
+            } catch (NumberFormatException e) {
+                return Response.status(Response.Status.UNAUTHORIZED).entity("Invalid user identifier.").build();
+            }
+        }
+        DocumentContent content;
+        try {
+            // Ownership is checked on the metadata, so another user's request never reaches the document store.
+            content = documentService.getContent(documentId, requesterId);
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (ForbiddenException e) {
+            LOG.warnf("User %s attempted to download document %d they do not own.", jwt.getSubject(), documentId);
+            return Response.status(Response.Status.FORBIDDEN).entity(e.getMessage()).build();
+        }
+
+        EntityTag etag = content.contentHash() != null ? new EntityTag(content.contentHash()) : null;
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true); // Revalidate with If-None-Match; the ETag makes that a 304
+        if (etag != null) {
+            Response.ResponseBuilder preconditionResult = request.evaluatePreconditions(etag);
+            if (preconditionResult != null) {
+                return preconditionResult.tag(etag).cacheControl(cacheControl).build();
+            }
+        }
+
+        // If-Range: only honour the range when the client's copy is still current. Strong comparison, so a weak
+        // W/"..." validator never matches.
+        boolean rangeApplies = range != null
+            && (ifRange == null || (etag != null && ifRange.trim().equals("\"" + content.contentHash() + "\"")));
+        ByteRange byteRange = rangeApplies ? ByteRange.parse(range, content.size()) : null;
+        if (byteRange == ByteRange.UNSATISFIABLE) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header("Content-Range", "bytes */" + content.size())
+                .build();
+        }
+        long offset = byteRange != null ? byteRange.offset() : 0;
+        long length = byteRange != null ? byteRange.length() : content.size();
+
+        Response.ResponseBuilder response = Response.status(byteRange != null ? Response.Status.PARTIAL_CONTENT : Response.Status.OK)
+            .entity(body(content, offset, length))
+            .type(content.fileType() != null ? content.fileType() : MediaType.APPLICATION_OCTET_STREAM)
+            .header("Accept-Ranges", "bytes")
+            .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(content.fileName()))
+            .cacheControl(cacheControl);
+        if (etag != null) {
+            response.tag(etag);
+        }
+        if (byteRange != null) {
+            response.header("Content-Range", byteRange.contentRange(content.size()));
+        }
+        if (content.localFile() == null) {
+            response.header(HttpHeaders.CONTENT_LENGTH, length);
+        }
+        return response.build();
+    }
+
+    private Object body(DocumentContent content, long offset, long length) {
+        if (content.localFile() != null) {
+            return new PathPart(content.localFile(), offset, length);
+        }
+        return (StreamingOutput) output -> documentService.copyContent(content, offset, length, output);
+    }
+
+    private static String contentDisposition(String fileName) {
+        String name = fileName != null ? fileName : "document";
+        String fallback = name.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_");
+        String encoded = URLEncoder.encode(name, StandardCharsets.UTF_8).replace("+", "%20");
+        return "attachment; filename=\"" + fallback + "\"; filename*=UTF-8''" + encoded;
+    }
+}
@@ -0,0 +1,74 @@
+package com.fitconnect.resource;
+
+import com.fitconnect.dto.MatchJobDTO;
+import com.fitconnect.service.MatchJobService;
+
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+// Status of background match jobs started via POST /api/service-requests/{id}/match-jobs
+@Path("/api/match-jobs")
+@Produces(MediaType.APPLICATION_JSON)
+public class MatchJobResource {
+
+    private static final Logger LOG = Logger.getLogger(MatchJobResource.class);
+
+    @Inject
+    MatchJobService matchJobService;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @GET
+    @Path("/{jobId}")
+    @RolesAllowed({"CLIENT", "ADMIN"})
+    public Response getJob(@PathParam("jobId") Long jobId, @Context SecurityContext ctx) {
+        try {
+            checkAccess(jobId, ctx);
+            MatchJobDTO job = matchJobService.getJob(jobId);
+            return Response.ok(job).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (ForbiddenException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity(e.getMessage()).build();
+        }
+    }
+
+    @GET
+    @Path("/{jobId}/events")
+    @RolesAllowed({"CLIENT", "ADMIN"})
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Blocking
+    public Multi<MatchJobDTO> streamJob(@PathParam("jobId") Long jobId, @Context SecurityContext ctx) {
+        checkAccess(jobId, ctx);
+        return matchJobService.watch(jobId);
+    }
+
+    private void checkAccess(Long jobId, SecurityContext ctx) {
+        if (ctx.isUserInRole("ADMIN")) {
+            return;
+        }
+        Long ownerId = matchJobService.getOwningClientId(jobId);
+        String currentUserIdStr = jwt.getSubject();
+        if (ownerId == null || !ownerId.toString().equals(currentUserIdStr)) {
+            LOG.warnf("User %s attempted to access match job %d they do not own.", currentUserIdStr, jobId);
+            throw new ForbiddenException("You are not authorized to view this match job.");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fitconnect.entity.Professional;
 import com.fitconnect.entity.ProfileStatus;
 import com.fitconnect.service.ProfessionalService;
 import com.fitconnect.service.ProfessionalScreeningService;
+import com.fitconnect.service.BlockingRequestExecutor;
 import com.fitconnect.dto.AppointmentDTO;
 import com.fitconnect.dto.ProfessionalPublicProfileDTO;
 import com.fitconnect.entity.Appointment;
@@ -32,6 +33,9 @@ import org.jboss.logging.Logger;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Path("/api/professionals")
@@ -46,6 +50,9 @@ public class ProfessionalResource {
     @Inject
     ProfessionalScreeningService screeningService;
 
+    @Inject
+    BlockingRequestExecutor blockingRequests;
+
     @Inject
     JsonWebToken jwt;
 
@@ -65,6 +72,8 @@ public class ProfessionalResource {
             return Response.status(Response.Status.CREATED).entity(dto).build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Too many registrations in progress; please retry shortly.").build();
         } catch (RuntimeException e) {
              if (e.getMessage() != null && e.getMessage().startsWith("Failed to store document")) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).build();
@@ -76,20 +85,28 @@ public class ProfessionalResource {
 
     @POST
     @Path("/{id}/screen")
-    public Response screenProfessional(@PathParam("id") Long id) {
+    public CompletionStage<Response> screenProfessional(@PathParam("id") Long id) {
         if (screeningService == null) {
              LOG.error("ProfessionalScreeningService not injected prior to screenProfessional call.");
-             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("Screening service is not available.").build();
+             return CompletableFuture.completedFuture(Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("Screening service is not available.").build());
         }
-        try {
-            screeningService.screenProfessionalProfile(id);
-            return Response.ok().entity("Screening process initiated for professional ID: " + id).build();
-        } catch (Exception e) {
-            LOG.errorf(e, "Error during manual screening trigger for professional ID: %d", id);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                           .entity("Error initiating screening: " + e.getMessage())
+        // Tika extraction and the LLM call take seconds; they run on their own thread, not on a worker.
+        return blockingRequests.submit("screening", () -> {
+            try {
+                screeningService.screenProfessionalProfile(id);
+                return Response.ok().entity("Screening process initiated for professional ID: " + id).build();
+            } catch (Exception e) {
+                LOG.errorf(e, "Error during manual screening trigger for professional ID: %d", id);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity("Error initiating screening: " + e.getMessage())
+                               .build();
+            }
+        }).exceptionally(e -> {
+            LOG.warnf("Rejecting screening request for professional ID %d: %s", id, e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                           .entity("Too many screenings in progress; please retry shortly.")
                            .build();
-        }
+        });
     }
 
     @GET
@@ -5,6 +5,10 @@ import com.fitconnect.entity.ServiceRequest;
 import com.fitconnect.service.ServiceRequestService;
 import com.fitconnect.dto.MatchResponseDTO;
 import com.fitconnect.service.MatchingService;
+import com.fitconnect.service.BlockingRequestExecutor;
+import com.fitconnect.service.MatchJobService;
+import com.fitconnect.service.MatchPrecomputeService;
+import com.fitconnect.dto.MatchJobDTO;
 import com.fitconnect.dto.ClientSelectProfessionalRequestDTO; // Added
 import com.fitconnect.dto.AppointmentDTO; // Added
 import com.fitconnect.entity.Appointment; // Added
@@ -17,6 +21,7 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
@@ -24,9 +29,14 @@ import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.NotFoundException;
 
+import io.smallrye.common.annotation.Blocking;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 import org.jboss.logging.Logger;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+
 @Path("/api/service-requests")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -40,6 +50,15 @@ public class ServiceRequestResource {
     @Inject
     MatchingService matchingService;
 
+    @Inject
+    MatchJobService matchJobService;
+
+    @Inject
+    MatchPrecomputeService matchPrecomputeService;
+
+    @Inject
+    BlockingRequestExecutor blockingRequests;
+
     @Inject
     JsonWebToken jwt; // To get the client's ID from the token
 
@@ -87,37 +106,91 @@ public class ServiceRequestResource {
     @GET
     @Path("/{id}/matches")
     @RolesAllowed({"CLIENT", "ADMIN"})
-    public Response getMatchesForServiceRequest(@PathParam("id") Long serviceRequestId, @Context SecurityContext ctx) {
+    @Blocking // The ownership check runs on a worker thread; matching itself is handed to blockingRequests.
+    public CompletionStage<Response> getMatchesForServiceRequest(@PathParam("id") Long serviceRequestId, @Context SecurityContext ctx) {
         String currentUserIdStr = jwt.getSubject();
         Long currentUserId;
         try {
             currentUserId = Long.parseLong(currentUserIdStr);
         } catch (NumberFormatException e) {
             LOG.warn("User ID from JWT is not a valid Long: " + currentUserIdStr);
-            return Response.status(Response.Status.UNAUTHORIZED).entity("Invalid user identifier.").build();
+            return CompletableFuture.completedFuture(Response.status(Response.Status.UNAUTHORIZED).entity("Invalid user identifier.").build());
         }
 
         ServiceRequest sr = ServiceRequest.findById(serviceRequestId);
         if (sr == null) {
-             return Response.status(Response.Status.NOT_FOUND).entity("Service request not found.").build();
+             return CompletableFuture.completedFuture(Response.status(Response.Status.NOT_FOUND).entity("Service request not found.").build());
         }
 
         if (!ctx.isUserInRole("ADMIN") && (sr.getClient() == null || !sr.getClient().id.equals(currentUserId))) {
             LOG.warnf("User %d (role %s) attempted to access matches for service request %d owned by user %s (client object: %s)",
                 currentUserId, jwt.getGroups(), serviceRequestId, sr.getClient() !=null ? sr.getClient().id : "null", sr.getClient());
-            return Response.status(Response.Status.FORBIDDEN).entity("You are not authorized to view matches for this service request.").build();
+            return CompletableFuture.completedFuture(Response.status(Response.Status.FORBIDDEN).entity("You are not authorized to view matches for this service request.").build());
         }
 
+        // Matching can wait seconds on the LLM; it runs on its own thread so the worker is free for other requests.
+        return blockingRequests.submit("matching", () -> {
+            try {
+                MatchResponseDTO matches = matchPrecomputeService.storedResult(serviceRequestId)
+                    .orElseGet(() -> matchingService.findMatchesForServiceRequest(serviceRequestId));
+                return Response.ok(matches).build();
+            } catch (NotFoundException e) {
+                LOG.warnf("Error finding matches for service request ID %d: %s", serviceRequestId, e.getMessage());
+                return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+            } catch (Exception e) {
+                LOG.errorf(e, "Unexpected error finding matches for service request ID %d", serviceRequestId);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity("An unexpected error occurred while finding matches.")
+                               .build();
+            }
+        }).exceptionally(e -> {
+            LOG.warnf("Rejecting match request for service request ID %d: %s", serviceRequestId, e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                           .entity("Too many match requests in progress; please retry shortly.")
+                           .build();
+        });
+    }
+
+    @POST
+    @Path("/{id}/match-jobs")
+    @RolesAllowed({"CLIENT", "ADMIN"})
+    public Response startMatchJob(@PathParam("id") Long serviceRequestId, @QueryParam("refresh") boolean refresh, @Context SecurityContext ctx) {
+        String currentUserIdStr = jwt.getSubject();
+        Long currentUserId;
         try {
-            MatchResponseDTO matches = matchingService.findMatchesForServiceRequest(serviceRequestId);
-            return Response.ok(matches).build();
+            currentUserId = Long.parseLong(currentUserIdStr);
+        } catch (NumberFormatException e) {
+            LOG.warn("User ID from JWT is not a valid Long: " + currentUserIdStr);
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Invalid user identifier.").build();
+        }
+
+        ServiceRequest sr = ServiceRequest.findById(serviceRequestId);
+        if (sr == null) {
+             return Response.status(Response.Status.NOT_FOUND).entity("Service request not found.").build();
+        }
+
+        if (!ctx.isUserInRole("ADMIN") && (sr.getClient() == null || !sr.getClient().id.equals(currentUserId))) {
+            LOG.warnf("User %d attempted to start a match job for service request %d they do not own.", currentUserId, serviceRequestId);
+            return Response.status(Response.Status.FORBIDDEN).entity("You are not authorized to request matches for this service request.").build();
+        }
+
+        try {
+            MatchJobDTO job = matchJobService.startJob(serviceRequestId, refresh);
+            return Response.status(Response.Status.ACCEPTED)
+                           .header("Location", "/api/match-jobs/" + job.getJobId())
+                           .entity(job)
+                           .build();
         } catch (NotFoundException e) {
-            LOG.warnf("Error finding matches for service request ID %d: %s", serviceRequestId, e.getMessage());
             return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (RejectedExecutionException e) {
+            LOG.warnf("Rejecting match job for service request ID %d: %s", serviceRequestId, e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                           .entity("Too many match jobs queued; please retry shortly.")
+                           .build();
         } catch (Exception e) {
-            LOG.errorf(e, "Unexpected error finding matches for service request ID %d", serviceRequestId);
+            LOG.errorf(e, "Unexpected error starting match job for service request ID %d", serviceRequestId);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                           .entity("An unexpected error occurred while finding matches.")
+                           .entity("An unexpected error occurred while starting the match job.")
                            .build();
         }
     }
@@ -0,0 +1,168 @@
+package com.fitconnect.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the default SmallRye JWT parser so a bearer token's RSA signature is verified once, not on every
+ * request: verified tokens are cached by the SHA-256 of the whole token (signature included, so any change to
+ * the token misses) until their {@code exp}. The cache is bounded by size and holds its values softly, so the
+ * GC can drop entries under memory pressure; a dropped entry just means one more verification. Only tokens
+ * parsed with the application's own settings are cached.
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CachingJWTParser implements JWTParser {
+
+    @Inject
+    JWTAuthContextInfo authContextInfo;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.jwt-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.jwt-cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    private JWTParser delegate;
+    private Cache<String, JsonWebToken> cache;
+
+    @PostConstruct
+    void init() {
+        delegate = new DefaultJWTParser(authContextInfo);
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .softValues()
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt-verified");
+        Gauge.builder("fitconnect.jwt.cache.hit_rate", cache, c -> c.stats().hitRate())
+            .description("Share of bearer tokens served from the verified JWT cache")
+            .register(registry);
+    }
+
+    @Override
+    public JsonWebToken parse(String token) throws ParseException {
+        return parse(token, authContextInfo);
+    }
+
+    @Override
+    public JsonWebToken parse(String token, JWTAuthContextInfo context) throws ParseException {
+        if (!enabled || context != authContextInfo || token == null) {
+            return delegate.parse(token, context);
+        }
+        String digest = digest(token);
+        JsonWebToken cached = cache.getIfPresent(digest);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        JsonWebToken verified = delegate.parse(token, context);
+        cache.put(digest, verified);
+        return verified;
+    }
+
+    @Override
+    public JsonWebToken verify(String token, PublicKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, SecretKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, String secret) throws ParseException {
+        return delegate.verify(token, secret);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, PrivateKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, SecretKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, String secret) throws ParseException {
+        return delegate.decrypt(token, secret);
+    }
+
+    @Override
+    public JsonWebToken parseOnly(String token) throws ParseException {
+        return delegate.parseOnly(token);
+    }
+
+    Cache<String, JsonWebToken> cache() {
+        return cache;
+    }
+
+    // Caffeine expires entries lazily; a token past exp is never returned even before it is evicted.
+    private static boolean isExpired(JsonWebToken token) {
+        long exp = token.getExpirationTime();
+        return exp > 0 && System.currentTimeMillis() / 1000 >= exp;
+    }
+
+    // The digest rather than the token is the key: a fixed 64 chars, and no usable bearer tokens in heap dumps.
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, JsonWebToken> {
+        @Override
+        public long expireAfterCreate(String key, JsonWebToken token, long currentTime) {
+            long exp = token.getExpirationTime();
+            if (exp <= 0) {
+                return 0; // No exp claim (only possible if the verifier allows it): don't cache
+            }
+            return Math.max(0, TimeUnit.SECONDS.toNanos(exp) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JsonWebToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JsonWebToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
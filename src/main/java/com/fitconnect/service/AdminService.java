@@ -3,6 +3,8 @@ package com.fitconnect.service;
 import com.fitconnect.entity.Professional;
 import com.fitconnect.entity.ProfileStatus;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import org.jboss.logging.Logger;
@@ -12,6 +14,9 @@ public class AdminService {
 
     private static final Logger LOG = Logger.getLogger(AdminService.class);
 
+    @Inject
+    Event<ProfessionalProfileChangedEvent> profileChanged;
+
     @Transactional
     public Professional verifyProfessionalProfile(Long professionalId, ProfileStatus newStatus) {
         if (newStatus != ProfileStatus.VERIFIED && newStatus != ProfileStatus.REJECTED) {
@@ -26,6 +31,7 @@ public class AdminService {
 
         professional.profileStatus = newStatus;
         professional.persist();
+        profileChanged.fire(ProfessionalProfileChangedEvent.of(professional));
         LOG.infof("Professional ID %d status updated to %s by admin.", professionalId, newStatus);
         return professional;
     }
@@ -0,0 +1,133 @@
+package com.fitconnect.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs endpoint work that blocks for seconds on the LLM or on Tika (matching, manual screening) off the HTTP
+ * worker pool, so a burst of such requests can't take every worker thread from the rest of the API. Each
+ * request gets its own thread: a virtual thread when the JVM has them (21+), otherwise a platform thread from
+ * a pool that grows to {@code max-in-flight} and shrinks when idle. Requests beyond {@code max-in-flight} are
+ * rejected instead of queued, so callers can answer 503 rather than time out.
+ */
+@ApplicationScoped
+public class BlockingRequestExecutor {
+
+    private static final Logger LOG = Logger.getLogger(BlockingRequestExecutor.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.blocking-requests.max-in-flight", defaultValue = "256")
+    int maxInFlight;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.blocking-requests.virtual-threads", defaultValue = "true")
+    boolean virtualThreads;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxInFlight);
+        executor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "blocking-request-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            // Threads are only started under load; the permits keep the queue from ever being used.
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        LOG.infof("Blocking endpoint work runs on %s threads, at most %d in flight.",
+            executor instanceof ThreadPoolExecutor ? "platform" : "virtual", maxInFlight);
+
+        Gauge.builder("fitconnect.blocking_requests.in_flight", inFlight, AtomicInteger::get)
+            .description("Blocking endpoint calls currently running off the worker pool")
+            .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs {@code task} on its own thread. The stage fails with {@link RejectedExecutionException} when
+     * {@code max-in-flight} calls are already running. The task must not rely on the caller's request context
+     * (JWT, request-scoped beans); read what it needs before submitting.
+     */
+    public <T> CompletionStage<T> submit(String name, Supplier<T> task) {
+        if (!permits.tryAcquire()) {
+            count(name, "rejected");
+            return CompletableFuture.failedFuture(
+                new RejectedExecutionException("Too many " + name + " requests in flight (" + maxInFlight + ")."));
+        }
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.incrementAndGet();
+                try {
+                    return task.get();
+                } finally {
+                    inFlight.decrementAndGet();
+                    permits.release();
+                    sample.stop(Timer.builder("fitconnect.blocking_requests.duration")
+                        .description("Time from submission to completion of a blocking endpoint call")
+                        .tag("name", name)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry));
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            permits.release(); // Only during shutdown
+            throw e;
+        }
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder("fitconnect.blocking_requests")
+            .description("Blocking endpoint calls by outcome")
+            .tag("name", name)
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is Java 21 API; looked up reflectively because the build targets 17.
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            LOG.debug("Virtual threads are not available on this JVM; using a platform thread pool.", e);
+            return null;
+        }
+    }
+}
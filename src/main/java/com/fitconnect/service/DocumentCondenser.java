@@ -0,0 +1,255 @@
+package com.fitconnect.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Shrinks extracted document text to a token budget before it goes to the profile analyzer:
+ * strips boilerplate (page numbers, repeated headers and footers, link-only lines), drops duplicate
+ * paragraphs across documents, splits the rest into chunks, scores each chunk against fitness and
+ * qualification vocabulary and keeps the best chunks that fit, in their original order.
+ */
+@ApplicationScoped
+public class DocumentCondenser {
+
+    private static final String CHUNK_SEPARATOR = "\n...\n";
+    private static final int SEPARATOR_TOKENS = TokenEstimator.count(CHUNK_SEPARATOR);
+
+    // Stemmed as SearchTokenizer would, so "certifications" and "certification" both hit.
+    private static final Set<String> VOCABULARY = Set.of(
+        "certified", "certification", "certificate", "diploma", "degree", "qualification", "licensed", "accredited",
+        "trainer", "training", "coach", "coaching", "instructor", "teacher", "therapist", "therapy", "physiotherapy",
+        "physiotherapist", "rehabilitation", "injury", "nutrition", "nutritionist", "dietitian", "diet", "mobility",
+        "strength", "conditioning", "endurance", "cardio", "hiit", "crossfit", "kettlebell", "weightlifting",
+        "powerlifting", "bodybuilding", "yoga", "pilate", "meditation", "mindfulness", "wellness", "massage",
+        "stretching", "running", "marathon", "triathlon", "cycling", "swimming", "boxing", "martial", "dance",
+        "sport", "athlete", "athletic", "performance", "fitness", "exercise", "kinesiology", "anatomy",
+        "physiology", "biomechanic", "personal", "group", "class", "client", "program", "experience", "year",
+        "specialist", "specialization", "assessment", "postnatal", "prenatal", "senior", "youth", "weight", "loss");
+
+    private static final Pattern PAGE_NUMBER = Pattern.compile("(?i)^(page\\s*)?\\d+(\\s*(of|/)\\s*\\d+)?$");
+    private static final Pattern LINK_ONLY = Pattern.compile("(?i)^(https?://\\S+|www\\.\\S+|\\S+@\\S+\\.\\S+)$");
+    private static final Pattern BOILERPLATE = Pattern.compile("(?i)^(\\u00a9|copyright\\b|all rights reserved|confidential\\b|printed on\\b).*");
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?;])\\s+");
+    private static final int MIN_LINE_LENGTH = 3;
+    // A line seen at least this often is a running header or footer.
+    private static final int REPEATED_LINE_THRESHOLD = 3;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.condense.token-budget", defaultValue = "3000")
+    int tokenBudget;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.condense.chunk-tokens", defaultValue = "200")
+    int chunkTokens;
+
+    record Chunk(int position, String text, int tokens, double score) {
+    }
+
+    public String condense(List<String> documentTexts) {
+        record("input", documentTexts.stream().mapToInt(TokenEstimator::count).sum());
+
+        List<List<String>> cleaned = timed("clean", () -> documentTexts.stream().map(DocumentCondenser::clean).collect(Collectors.toList()));
+        List<String> paragraphs = timed("dedupe", () -> dedupe(cleaned));
+        List<Chunk> chunks = timed("chunk", () -> chunk(paragraphs));
+        record("cleaned", chunks.stream().mapToInt(Chunk::tokens).sum());
+
+        List<Chunk> scored = timed("score", () -> chunks.stream()
+            .map(c -> new Chunk(c.position(), c.text(), c.tokens(), score(c, chunks.size())))
+            .collect(Collectors.toList()));
+        String packed = timed("pack", () -> pack(scored));
+        record("output", TokenEstimator.count(packed));
+        return packed;
+    }
+
+    // Splits into trimmed paragraphs, dropping boilerplate lines.
+    static List<String> clean(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String[] lines = text.split("\\r?\\n");
+        Map<String, Integer> lineCounts = new HashMap<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                lineCounts.merge(trimmed.toLowerCase(Locale.ROOT), 1, Integer::sum);
+            }
+        }
+
+        List<String> paragraphs = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : lines) {
+            String trimmed = line.trim().replaceAll("\\s+", " ");
+            if (trimmed.isEmpty()) {
+                flush(paragraphs, current);
+                continue;
+            }
+            if (isBoilerplate(trimmed) || lineCounts.getOrDefault(trimmed.toLowerCase(Locale.ROOT), 0) >= REPEATED_LINE_THRESHOLD) {
+                continue;
+            }
+            if (current.length() > 0) {
+                current.append(' ');
+            }
+            current.append(trimmed);
+        }
+        flush(paragraphs, current);
+        return paragraphs;
+    }
+
+    private static boolean isBoilerplate(String line) {
+        if (line.length() < MIN_LINE_LENGTH || PAGE_NUMBER.matcher(line).matches()
+                || LINK_ONLY.matcher(line).matches() || BOILERPLATE.matcher(line).matches()) {
+            return true;
+        }
+        long letters = line.chars().filter(Character::isLetter).count();
+        return letters * 2 < line.length(); // mostly symbols or numbers: tables of dots, form lines, OCR noise
+    }
+
+    private static void flush(List<String> paragraphs, StringBuilder current) {
+        if (current.length() > 0) {
+            paragraphs.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    // Identical paragraphs across documents (the same certificate uploaded twice) are kept once.
+    private static List<String> dedupe(List<List<String>> documents) {
+        Set<String> seen = new HashSet<>();
+        List<String> unique = new ArrayList<>();
+        for (List<String> paragraphs : documents) {
+            for (String paragraph : paragraphs) {
+                if (seen.add(String.join(" ", SearchTokenizer.tokenize(paragraph)))) {
+                    unique.add(paragraph);
+                }
+            }
+        }
+        return unique;
+    }
+
+    // Greedy grouping of whole paragraphs up to chunkTokens; an oversized paragraph is split into sentences,
+    // and an oversized sentence into word windows, so every chunk fits and none is too big for the budget.
+    private List<Chunk> chunk(List<String> paragraphs) {
+        List<Chunk> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentTokens = 0;
+        for (String paragraph : paragraphs) {
+            boolean paragraphStart = true;
+            for (String piece : split(paragraph)) {
+                int tokens = TokenEstimator.count(piece);
+                if (currentTokens > 0 && currentTokens + tokens > chunkTokens) {
+                    chunks.add(new Chunk(chunks.size(), current.toString(), currentTokens, 0));
+                    current.setLength(0);
+                    currentTokens = 0;
+                }
+                if (current.length() > 0) {
+                    current.append(paragraphStart ? '\n' : ' ');
+                }
+                current.append(piece);
+                currentTokens += tokens;
+                paragraphStart = false;
+            }
+        }
+        if (currentTokens > 0) {
+            chunks.add(new Chunk(chunks.size(), current.toString(), currentTokens, 0));
+        }
+        return chunks;
+    }
+
+    private List<String> split(String paragraph) {
+        if (TokenEstimator.count(paragraph) <= chunkTokens) {
+            return List.of(paragraph);
+        }
+        List<String> pieces = new ArrayList<>();
+        for (String sentence : SENTENCE_END.split(paragraph)) {
+            if (TokenEstimator.count(sentence) <= chunkTokens) {
+                pieces.add(sentence);
+                continue;
+            }
+            // No usable sentence breaks (a skills list, OCR output): cut between words.
+            StringBuilder window = new StringBuilder();
+            for (String word : sentence.split(" ")) {
+                if (window.length() > 0 && TokenEstimator.count(window + " " + word) > chunkTokens) {
+                    pieces.add(window.toString());
+                    window.setLength(0);
+                }
+                if (window.length() > 0) {
+                    window.append(' ');
+                }
+                window.append(word);
+            }
+            if (window.length() > 0) {
+                pieces.add(window.toString());
+            }
+        }
+        return pieces;
+    }
+
+    // Vocabulary density, with a small bonus for early chunks where CVs put their summary.
+    private static double score(Chunk chunk, int chunkCount) {
+        List<String> terms = SearchTokenizer.tokenize(chunk.text());
+        if (terms.isEmpty()) {
+            return 0;
+        }
+        long hits = terms.stream().filter(VOCABULARY::contains).count();
+        double density = hits / Math.sqrt(terms.size());
+        double positionBonus = 0.1 * (1 - (double) chunk.position() / Math.max(1, chunkCount));
+        return density + positionBonus;
+    }
+
+    private String pack(List<Chunk> chunks) {
+        List<Chunk> selected = new ArrayList<>();
+        int used = 0;
+        for (Chunk chunk : chunks.stream().sorted(Comparator.comparingDouble(Chunk::score).reversed()).collect(Collectors.toList())) {
+            // The separator between chunks counts against the budget too.
+            int cost = chunk.tokens() + (selected.isEmpty() ? 0 : SEPARATOR_TOKENS);
+            if (used + cost <= tokenBudget) {
+                selected.add(chunk);
+                used += cost;
+            }
+        }
+        return selected.stream()
+            .sorted(Comparator.comparingInt(Chunk::position))
+            .map(Chunk::text)
+            .collect(Collectors.joining(CHUNK_SEPARATOR));
+    }
+
+    private <T> T timed(String stage, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return work.get();
+        } finally {
+            sample.stop(Timer.builder("fitconnect.condense.stage.duration")
+                .description("Time spent in each document condensation stage")
+                .tag("stage", stage)
+                .register(registry));
+        }
+    }
+
+    private void record(String stage, int tokens) {
+        DistributionSummary.builder("fitconnect.condense.tokens")
+            .description("Document text size at each condensation stage")
+            .baseUnit("tokens")
+            .tag("stage", stage)
+            .register(registry)
+            .record(tokens);
+    }
+}
@@ -0,0 +1,370 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.ExtractedText;
+import com.fitconnect.entity.ProfessionalDocument;
+import com.fitconnect.storage.DocumentStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.tika.Tika;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.apache.tika.sax.WriteOutContentHandler;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Text of uploaded documents for screening, read from the {@link DocumentStore} (or, for documents
+ * registered before it, the legacy file path or the professional_document_contents BLOB). Extraction results are stored by the SHA-256 of the
+ * document bytes, so a re-screen, or the same certificate uploaded by another professional, skips Tika.
+ * Documents are extracted in parallel on a bounded pool, and Tika parses on the pool thread itself, so the pool
+ * size bounds parsing CPU. Each document is limited in time and in characters; Tika's output is written to a
+ * buffer that stops at the character limit, so a huge file never becomes one huge string.
+ */
+@ApplicationScoped
+public class DocumentTextExtractor {
+
+    private static final Logger LOG = Logger.getLogger(DocumentTextExtractor.class);
+
+    public enum Outcome { EXTRACTED, MISSING, FAILED }
+
+    /** What extraction needs from a document, detached from the persistence context so workers can use it. */
+    public record DocumentSource(Long documentId, String fileName, String storagePath, String contentHash, Long size) {
+        public static DocumentSource of(ProfessionalDocument doc) {
+            return new DocumentSource(doc.getId(), doc.getFileName(), doc.getStoragePath(), doc.getContentHash(), doc.getFileSize());
+        }
+    }
+
+    public record Extraction(Outcome outcome, String contentHash, String text, String error) {
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    DocumentStore documentStore;
+
+    @Inject
+    ProfessionalDocumentService documentService;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.extraction.concurrency", defaultValue = "2")
+    int concurrency;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.extraction.timeout", defaultValue = "30s")
+    Duration timeout;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.extraction.max-chars", defaultValue = "200000")
+    int maxChars;
+
+    // Tika is thread-safe once configured; building it loads every parser, so it is done once.
+    private final Tika tika = new Tika();
+    private ExecutorService executor;
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "doc-extract-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "doc-extract-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    /** Extracts all documents in parallel; results are in the order of {@code sources}. */
+    public List<Extraction> extractAll(List<DocumentSource> sources) {
+        List<Future<Extraction>> futures = new ArrayList<>();
+        for (DocumentSource source : sources) {
+            futures.add(executor.submit(() -> extract(source)));
+        }
+        List<Extraction> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted while extracting documents", e);
+            } catch (ExecutionException e) {
+                results.add(new Extraction(Outcome.FAILED, sources.get(i).contentHash(), null, String.valueOf(e.getCause())));
+            }
+        }
+        return results;
+    }
+
+    Extraction extract(DocumentSource source) {
+        Timer.Sample sample = Timer.start(registry);
+        String result = "failed";
+        // Kept outside the try so a failed or timed-out parse still reports the hash computed below.
+        String contentHash = source.contentHash();
+        try {
+            if (contentHash == null) {
+                contentHash = hashContent(source);
+            }
+            if (contentHash == null) {
+                result = "missing";
+                return new Extraction(Outcome.MISSING, null, null, null);
+            }
+
+            String key = contentHash;
+            ExtractedText stored = QuarkusTransaction.requiringNew().call(() -> ExtractedText.<ExtractedText>findById(key));
+            if (stored != null) {
+                count("hit");
+                result = "cached";
+                return new Extraction(Outcome.EXTRACTED, contentHash, decompress(stored.compressedText), null);
+            }
+
+            count("miss");
+            String text = parse(source);
+            if (text == null) {
+                result = "missing";
+                return new Extraction(Outcome.MISSING, contentHash, null, null);
+            }
+            store(contentHash, text);
+            result = "parsed";
+            return new Extraction(Outcome.EXTRACTED, contentHash, text, null);
+        } catch (InterruptedIOException e) {
+            result = "timeout";
+            LOG.warnf("Extracting %s took longer than %s; skipped.", source.fileName(), timeout);
+            return new Extraction(Outcome.FAILED, contentHash, null, "Extraction timed out");
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to read or parse document %s", source.fileName());
+            return new Extraction(Outcome.FAILED, contentHash, null, e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("fitconnect.extraction.duration")
+                .description("Time to get the text of one document")
+                .tag("result", result)
+                .register(registry));
+        }
+    }
+
+    // Runs on the doc-extract thread; when the timeout passes, the watchdog interrupts that thread, which stops
+    // interruptible reads and, through InterruptibleHandler, the parser's next output.
+    private String parse(DocumentSource source) throws Exception {
+        Thread worker = Thread.currentThread();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> timer = watchdog.schedule(() -> {
+            timedOut.set(true);
+            worker.interrupt();
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            return readContent(source, stream -> stream == null ? null : parse(source, stream, timedOut));
+        } finally {
+            timer.cancel(false);
+            // Clear an interrupt that fired after the last read, so the pooled thread starts clean.
+            Thread.interrupted();
+        }
+    }
+
+    private String parse(DocumentSource source, InputStream stream, AtomicBoolean timedOut) throws IOException {
+        long bytes = 0;
+        if (source.storagePath() != null && Files.exists(Paths.get(source.storagePath()))) {
+            bytes = Files.size(Paths.get(source.storagePath()));
+        } else if (source.size() != null) {
+            bytes = source.size();
+        }
+        StringWriter text = new StringWriter();
+        Parser parser = tika.getParser();
+        ParseContext context = new ParseContext();
+        context.set(Parser.class, parser); // Embedded documents (attachments, archive entries) too, as Tika.parse does
+        try {
+            parser.parse(stream, new InterruptibleHandler(new WriteOutContentHandler(text, maxChars)), new Metadata(), context);
+        } catch (SAXException | TikaException | IOException | RuntimeException e) {
+            if (timedOut.get()) {
+                throw new InterruptedIOException("Extraction timed out");
+            }
+            // WriteOutContentHandler stops the parse with an exception once maxChars are written; keep that text.
+            if (text.getBuffer().length() < maxChars) {
+                throw e instanceof IOException ? (IOException) e : new IOException("Could not parse " + source.fileName(), e);
+            }
+            LOG.warnf("Text of %s truncated at %d characters.", source.fileName(), maxChars);
+        }
+        DistributionSummary.builder("fitconnect.extraction.bytes")
+            .description("Size of parsed documents")
+            .baseUnit("bytes")
+            .register(registry)
+            .record(bytes);
+        DistributionSummary.builder("fitconnect.extraction.chars")
+            .description("Characters extracted per parsed document")
+            .baseUnit("characters")
+            .register(registry)
+            .record(text.getBuffer().length());
+        return text.toString();
+    }
+
+    // Parsers don't check for interrupts; failing their next write does, so a timed-out parse doesn't keep the thread busy.
+    private static final class InterruptibleHandler extends ContentHandlerDecorator {
+
+        InterruptibleHandler(ContentHandler handler) {
+            super(handler);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String name, Attributes atts) throws SAXException {
+            checkInterrupted();
+            super.startElement(uri, localName, name, atts);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            checkInterrupted();
+            super.characters(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            checkInterrupted();
+            super.ignorableWhitespace(ch, start, length);
+        }
+
+        private static void checkInterrupted() throws SAXException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new SAXException("Extraction interrupted");
+            }
+        }
+    }
+
+    private void store(String contentHash, String text) throws IOException {
+        byte[] compressed = compress(text);
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                if (ExtractedText.findById(contentHash) == null) {
+                    ExtractedText extracted = new ExtractedText();
+                    extracted.contentHash = contentHash;
+                    extracted.compressedText = compressed;
+                    extracted.textLength = text.length();
+                    extracted.extractedAt = LocalDateTime.now();
+                    extracted.persist();
+                }
+            });
+        } catch (RuntimeException e) {
+            // A concurrent screening of the same file stored it first; its row is just as good.
+            LOG.debugf("Extracted text for %s was stored concurrently: %s", contentHash, e.getMessage());
+        }
+    }
+
+    private String hashContent(DocumentSource source) throws IOException {
+        return readContent(source, stream -> {
+            if (stream == null) {
+                return null;
+            }
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        });
+    }
+
+    // Legacy file path, then the DocumentStore, then the legacy BLOB table; the reader gets null if none has it.
+    private <T> T readContent(DocumentSource source, ProfessionalDocumentService.ContentReader<T> reader) throws IOException {
+        if (source.storagePath() != null) {
+            Path path = Paths.get(source.storagePath());
+            if (Files.exists(path)) {
+                try (InputStream stream = Files.newInputStream(path)) {
+                    return reader.read(stream);
+                }
+            }
+        }
+        if (source.contentHash() != null) {
+            InputStream stored = documentStore.open(source.contentHash());
+            if (stored != null) {
+                try (stored) {
+                    return reader.read(stored);
+                }
+            }
+        }
+        if (source.documentId() != null) {
+            return documentService.readLegacyContent(source.documentId(), reader);
+        }
+        return reader.read(null);
+    }
+
+    private void count(String result) {
+        Counter.builder("fitconnect.extraction.cache")
+            .description("Document text lookups by content hash")
+            .tag("result", result)
+            .register(registry)
+            .increment();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] compress(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] compressed) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
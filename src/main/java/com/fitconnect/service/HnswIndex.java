@@ -0,0 +1,319 @@
+package com.fitconnect.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest-neighbour search over unit vectors
+ * (distance is 1 - dot product). Not thread-safe; callers guard it with their own lock.
+ * Removing a key only tombstones its node so the graph stays navigable; {@link #compact()} rebuilds without them.
+ */
+public class HnswIndex {
+
+    private static final int FILE_MAGIC = 0x484E5357; // "HNSW"
+    private static final int FILE_VERSION = 1;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> liveNodes = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public record Neighbour(long key, float distance) {
+    }
+
+    private static final class Node {
+        final long key;
+        final float[] vector;
+        final int[][] links;
+        final int[] linkCounts;
+        boolean deleted;
+
+        Node(long key, float[] vector, int level, int m, int maxM0) {
+            this.key = key;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new int[(l == 0 ? maxM0 : m) + 1];
+            }
+        }
+
+        int level() {
+            return links.length - 1;
+        }
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    public HnswIndex(int dimensions, int m, int efConstruction) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return liveNodes.size();
+    }
+
+    public int tombstones() {
+        return nodes.size() - liveNodes.size();
+    }
+
+    public boolean contains(long key) {
+        return liveNodes.containsKey(key);
+    }
+
+    public void add(long key, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected vector of " + dimensions + " dimensions but got " + vector.length);
+        }
+        remove(key);
+
+        int level = (int) Math.floor(-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int nodeId = nodes.size();
+        Node node = new Node(key, vector, level, m, maxM0);
+        nodes.add(node);
+        liveNodes.put(key, nodeId);
+
+        if (entryPoint < 0) {
+            entryPoint = nodeId;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> candidates = searchLayer(vector, current, efConstruction, l);
+            int maxConnections = l == 0 ? maxM0 : m;
+            for (int i = 0; i < Math.min(m, candidates.size()); i++) {
+                int neighbour = candidates.get(i).node();
+                link(node, l, neighbour);
+                link(nodes.get(neighbour), l, nodeId);
+                if (nodes.get(neighbour).linkCounts[l] > maxConnections) {
+                    shrink(neighbour, l, maxConnections);
+                }
+            }
+            current = candidates.get(0).node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = nodeId;
+        }
+    }
+
+    public boolean remove(long key) {
+        Integer nodeId = liveNodes.remove(key);
+        if (nodeId == null) {
+            return false;
+        }
+        nodes.get(nodeId).deleted = true;
+        return true;
+    }
+
+    public List<Neighbour> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0 || liveNodes.isEmpty()) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        // Tombstones still occupy slots in the beam, so widen it by their share of the graph.
+        int beam = Math.max(ef, k) + tombstones();
+        List<Neighbour> result = new ArrayList<>(k);
+        for (Candidate candidate : searchLayer(query, current, beam, 0)) {
+            Node node = nodes.get(candidate.node());
+            if (!node.deleted) {
+                result.add(new Neighbour(node.key, candidate.distance()));
+                if (result.size() == k) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Returns a fresh graph containing only the live nodes. */
+    public HnswIndex compact() {
+        HnswIndex compacted = new HnswIndex(dimensions, m, efConstruction);
+        for (Node node : nodes) {
+            if (!node.deleted) {
+                compacted.add(node.key, node.vector);
+            }
+        }
+        return compacted;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(FILE_VERSION);
+        out.writeInt(dimensions);
+        out.writeInt(m);
+        out.writeInt(efConstruction);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        out.writeInt(nodes.size());
+        for (Node node : nodes) {
+            out.writeLong(node.key);
+            out.writeBoolean(node.deleted);
+            out.writeInt(node.level());
+            for (float v : node.vector) {
+                out.writeFloat(v);
+            }
+            for (int l = 0; l <= node.level(); l++) {
+                out.writeInt(node.linkCounts[l]);
+                for (int i = 0; i < node.linkCounts[l]; i++) {
+                    out.writeInt(node.links[l][i]);
+                }
+            }
+        }
+    }
+
+    public static HnswIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+            throw new IOException("Not an HNSW index file or unsupported version");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt());
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        int count = in.readInt();
+        for (int n = 0; n < count; n++) {
+            long key = in.readLong();
+            boolean deleted = in.readBoolean();
+            int level = in.readInt();
+            float[] vector = new float[index.dimensions];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = in.readFloat();
+            }
+            Node node = new Node(key, vector, level, index.m, index.maxM0);
+            node.deleted = deleted;
+            for (int l = 0; l <= level; l++) {
+                int linkCount = in.readInt();
+                for (int i = 0; i < linkCount; i++) {
+                    node.links[l][i] = in.readInt();
+                }
+                node.linkCounts[l] = linkCount;
+            }
+            index.nodes.add(node);
+            if (!deleted) {
+                index.liveNodes.put(key, n);
+            }
+        }
+        return index;
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbour = node.links[layer][i];
+                float d = distance(query, nodes.get(neighbour).vector);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Standard beam search on one layer; result is ordered closest first.
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+
+        Candidate first = new Candidate(start, distance(query, nodes.get(start).vector));
+        visited.set(start);
+        frontier.add(first);
+        best.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (closest.distance() > best.peek().distance() && best.size() >= ef) {
+                break;
+            }
+            Node node = nodes.get(closest.node());
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbour = node.links[layer][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float d = distance(query, nodes.get(neighbour).vector);
+                if (best.size() < ef || d < best.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbour, d);
+                    frontier.add(candidate);
+                    best.add(candidate);
+                    if (best.size() > ef) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(Candidate::distance));
+        return ordered;
+    }
+
+    private void link(Node from, int layer, int to) {
+        from.links[layer][from.linkCounts[layer]++] = to;
+    }
+
+    // Keeps the closest maxConnections links of a node that just received one too many.
+    private void shrink(int nodeId, int layer, int maxConnections) {
+        Node node = nodes.get(nodeId);
+        Candidate[] current = new Candidate[node.linkCounts[layer]];
+        for (int i = 0; i < current.length; i++) {
+            int neighbour = node.links[layer][i];
+            current[i] = new Candidate(neighbour, distance(node.vector, nodes.get(neighbour).vector));
+        }
+        Arrays.sort(current, Comparator.comparingDouble(Candidate::distance));
+        for (int i = 0; i < maxConnections; i++) {
+            node.links[layer][i] = current[i].node();
+        }
+        node.linkCounts[layer] = maxConnections;
+    }
+
+    private static float distance(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+}
@@ -0,0 +1,66 @@
+package com.fitconnect.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Moves document bytes from the old professional_documents BLOB column into professional_document_contents.
+ * Only does something on a database whose schema predates that table (with drop-and-create there is no old
+ * column); it runs at startup, is idempotent, and drops the old column once every row has been copied.
+ */
+@ApplicationScoped
+public class LegacyDocumentContentMigration {
+
+    private static final Logger LOG = Logger.getLogger(LegacyDocumentContentMigration.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    void onStart(@Observes StartupEvent event) {
+        String column = legacyColumn();
+        if (column == null) {
+            return;
+        }
+        // Column names can't be bound; this one comes from information_schema and is one of two known names.
+        int copied = QuarkusTransaction.requiringNew().call(() -> {
+            int rows = entityManager.createNativeQuery(
+                    "INSERT INTO professional_document_contents (document_id, content) "
+                        + "SELECT d.id, d." + column + " FROM professional_documents d "
+                        + "WHERE d." + column + " IS NOT NULL "
+                        + "AND NOT EXISTS (SELECT 1 FROM professional_document_contents c WHERE c.document_id = d.id)")
+                .executeUpdate();
+            entityManager.createNativeQuery(
+                    "UPDATE professional_documents SET file_size = LENGTH(" + column + ") "
+                        + "WHERE " + column + " IS NOT NULL AND file_size IS NULL")
+                .executeUpdate();
+            return rows;
+        });
+        // DDL commits implicitly in MySQL, so it goes after the copy has committed.
+        QuarkusTransaction.requiringNew().run(() ->
+            entityManager.createNativeQuery("ALTER TABLE professional_documents DROP COLUMN " + column).executeUpdate());
+        LOG.infof("Moved %d legacy document BLOBs to professional_document_contents and dropped professional_documents.%s.", copied, column);
+    }
+
+    private String legacyColumn() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            @SuppressWarnings("unchecked")
+            List<String> columns = entityManager.createNativeQuery(
+                    "SELECT column_name FROM information_schema.columns "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'professional_documents' "
+                        + "AND LOWER(column_name) IN ('filecontent', 'file_content')")
+                .getResultList();
+            if (columns.isEmpty()) {
+                return null;
+            }
+            String column = columns.get(0);
+            return column.equalsIgnoreCase("fileContent") ? "fileContent" : "file_content";
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchCandidateDTO;
+import com.fitconnect.entity.ProfileStatus;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads verified professionals for matching in two statements: one projection over the scalar columns
+ * and one over skill names. Avoids the per-professional lazy skills load and the eager socialMediaLinks
+ * collection that loading full Professional entities triggers.
+ */
+@ApplicationScoped
+public class MatchCandidateLoader {
+
+    private static final String CANDIDATE_SELECT = "select new com.fitconnect.dto.MatchCandidateDTO("
+        + "p.id, p.name, p.profession, p.yearsOfExperience, p.summarizedSkills, p.aboutYou) "
+        + "from Professional p where p.profileStatus = :status";
+
+    @Inject
+    EntityManager entityManager;
+
+    /** Returns the verified professionals among {@code ids}, keyed by id. Missing or unverified ids are skipped. */
+    public Map<Long, MatchCandidateDTO> loadVerified(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        List<MatchCandidateDTO> candidates = entityManager
+            .createQuery(CANDIDATE_SELECT + " and p.id in :ids", MatchCandidateDTO.class)
+            .setParameter("status", ProfileStatus.VERIFIED)
+            .setParameter("ids", ids)
+            .getResultList();
+        List<Object[]> skillRows = entityManager
+            .createQuery("select p.id, s.name from Professional p join p.skills s where p.id in :ids", Object[].class)
+            .setParameter("ids", ids)
+            .getResultList();
+        return attachSkills(candidates, skillRows);
+    }
+
+    public Map<Long, MatchCandidateDTO> loadAllVerified() {
+        List<MatchCandidateDTO> candidates = entityManager
+            .createQuery(CANDIDATE_SELECT, MatchCandidateDTO.class)
+            .setParameter("status", ProfileStatus.VERIFIED)
+            .getResultList();
+        List<Object[]> skillRows = entityManager
+            .createQuery("select p.id, s.name from Professional p join p.skills s where p.profileStatus = :status", Object[].class)
+            .setParameter("status", ProfileStatus.VERIFIED)
+            .getResultList();
+        return attachSkills(candidates, skillRows);
+    }
+
+    private static Map<Long, MatchCandidateDTO> attachSkills(List<MatchCandidateDTO> candidates, List<Object[]> skillRows) {
+        Map<Long, MatchCandidateDTO> byId = new LinkedHashMap<>();
+        candidates.forEach(candidate -> byId.put(candidate.id, candidate));
+        for (Object[] row : skillRows) {
+            MatchCandidateDTO candidate = byId.get((Long) row[0]);
+            if (candidate != null) {
+                candidate.skills.add((String) row[1]);
+            }
+        }
+        return byId;
+    }
+}
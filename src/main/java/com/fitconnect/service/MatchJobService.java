@@ -0,0 +1,281 @@
+package com.fitconnect.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitconnect.dto.MatchJobDTO;
+import com.fitconnect.dto.MatchResponseDTO;
+import com.fitconnect.entity.MatchJob;
+import com.fitconnect.entity.MatchJobStatus;
+import com.fitconnect.entity.ServiceRequest;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs matching in the background so HTTP workers don't wait on the LLM.
+ * Jobs and their results are stored in match_jobs; watchers get status changes pushed to them.
+ */
+@ApplicationScoped
+public class MatchJobService {
+
+    private static final Logger LOG = Logger.getLogger(MatchJobService.class);
+
+    @Inject
+    MatchingService matchingService;
+
+    @Inject
+    MatchPoolVersion poolVersion;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-jobs.concurrency", defaultValue = "4")
+    int concurrency;
+
+    // Jobs waiting for a thread; further jobs are refused rather than queued without limit.
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-jobs.queue-size", defaultValue = "64")
+    int queueSize;
+
+    // A PENDING/RUNNING job not touched for this long is assumed lost (e.g. the node restarted).
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-jobs.stale-after", defaultValue = "5m")
+    Duration staleAfter;
+
+    private ThreadPoolExecutor executor;
+    private final Map<Long, List<UnicastProcessor<MatchJobDTO>>> watchers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "match-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the latest usable job for the request, or starts a new one.
+     * A completed job is reused unless {@code refresh} is set, so reloading a page never re-runs the LLM.
+     *
+     * @throws RejectedExecutionException when {@code queue-size} jobs are already waiting; the new job is marked failed
+     */
+    public MatchJobDTO startJob(Long serviceRequestId, boolean refresh) {
+        JobHandle handle = reserveJob(serviceRequestId, refresh);
+        if (handle.created()) {
+            Long jobId = handle.job().getJobId();
+            try {
+                executor.execute(() -> run(jobId, serviceRequestId));
+            } catch (RejectedExecutionException e) {
+                // Fail the reserved job, or later POSTs would reuse a PENDING job nobody runs until it goes stale.
+                publish(updateStatus(jobId, MatchJobStatus.FAILED, null, "Match job queue is full"));
+                throw new RejectedExecutionException("Match job queue is full (" + queueSize + " waiting).");
+            }
+            LOG.infof("Queued match job %d for service request %d.", jobId, serviceRequestId);
+        }
+        return handle.job();
+    }
+
+    /** Like {@link #startJob} without refresh, but runs the job on the caller's thread. */
+    public void runJob(Long serviceRequestId) {
+        JobHandle handle = reserveJob(serviceRequestId, false);
+        if (handle.created()) {
+            run(handle.job().getJobId(), serviceRequestId);
+        }
+    }
+
+    /**
+     * The result of the latest job for the request, if it completed within {@code maxAge} and against the current
+     * verified pool, so professionals verified or edited since then aren't left out.
+     */
+    public Optional<MatchResponseDTO> findCompletedResult(Long serviceRequestId, Duration maxAge) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            MatchJob latest = MatchJob.find("serviceRequest.id = ?1 order by id desc", serviceRequestId).firstResult();
+            if (latest == null || latest.status != MatchJobStatus.COMPLETED || latest.completedAt == null
+                    || latest.completedAt.isBefore(LocalDateTime.now().minus(maxAge)) || !isCurrentPool(latest)) {
+                return Optional.<MatchResponseDTO>empty();
+            }
+            return Optional.ofNullable(toDto(latest).getResult());
+        });
+    }
+
+    public MatchJobDTO getJob(Long jobId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            MatchJob job = MatchJob.findById(jobId);
+            if (job == null) {
+                throw new NotFoundException("Match job not found with ID: " + jobId);
+            }
+            return toDto(job);
+        });
+    }
+
+    public Long getOwningClientId(Long jobId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            MatchJob job = MatchJob.findById(jobId);
+            if (job == null) {
+                throw new NotFoundException("Match job not found with ID: " + jobId);
+            }
+            return job.serviceRequest.getClient() != null ? job.serviceRequest.getClient().id : null;
+        });
+    }
+
+    /** Emits the current status, then every change until the job finishes. */
+    public Multi<MatchJobDTO> watch(Long jobId) {
+        // Register before reading so a completion committed in between is still delivered.
+        UnicastProcessor<MatchJobDTO> processor = UnicastProcessor.create();
+        watchers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(processor);
+
+        MatchJobDTO current;
+        try {
+            current = getJob(jobId);
+        } catch (RuntimeException e) {
+            removeWatcher(jobId, processor);
+            throw e;
+        }
+        if (current.getStatus() == MatchJobStatus.COMPLETED || current.getStatus() == MatchJobStatus.FAILED) {
+            removeWatcher(jobId, processor);
+            return Multi.createFrom().item(current);
+        }
+        processor.onNext(current);
+        return processor.onTermination().invoke(() -> removeWatcher(jobId, processor));
+    }
+
+    private void run(Long jobId, Long serviceRequestId) {
+        publish(updateStatus(jobId, MatchJobStatus.RUNNING, null, null));
+        MatchJobDTO finished;
+        try {
+            // Read before matching: a pool change during the run makes the stored result stale, not current.
+            long version = QuarkusTransaction.requiringNew().call(poolVersion::current);
+            MatchResponseDTO result = matchingService.findMatchesForServiceRequest(serviceRequestId);
+            finished = updateStatus(jobId, MatchJobStatus.COMPLETED, objectMapper.writeValueAsString(result), null, version);
+        } catch (Exception e) {
+            LOG.errorf(e, "Match job %d for service request %d failed", jobId, serviceRequestId);
+            finished = updateStatus(jobId, MatchJobStatus.FAILED, null, e.getMessage());
+        }
+        publish(finished);
+    }
+
+    private MatchJobDTO updateStatus(Long jobId, MatchJobStatus status, String resultJson, String errorMessage) {
+        return updateStatus(jobId, status, resultJson, errorMessage, null);
+    }
+
+    private MatchJobDTO updateStatus(Long jobId, MatchJobStatus status, String resultJson, String errorMessage, Long version) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            MatchJob job = MatchJob.findById(jobId);
+            job.status = status;
+            job.resultJson = resultJson;
+            job.errorMessage = errorMessage != null && errorMessage.length() > 1000 ? errorMessage.substring(0, 1000) : errorMessage;
+            job.poolVersion = version;
+            if (job.isFinished()) {
+                job.completedAt = LocalDateTime.now();
+            }
+            return toDto(job);
+        });
+    }
+
+    private boolean isCurrentPool(MatchJob job) {
+        return job.poolVersion != null && job.poolVersion == poolVersion.current();
+    }
+
+    private void publish(MatchJobDTO dto) {
+        boolean finished = dto.getStatus() == MatchJobStatus.COMPLETED || dto.getStatus() == MatchJobStatus.FAILED;
+        List<UnicastProcessor<MatchJobDTO>> jobWatchers = finished ? watchers.remove(dto.getJobId()) : watchers.get(dto.getJobId());
+        if (jobWatchers == null) {
+            return;
+        }
+        for (UnicastProcessor<MatchJobDTO> processor : jobWatchers) {
+            processor.onNext(dto);
+            if (finished) {
+                processor.onComplete();
+            }
+        }
+    }
+
+    private void removeWatcher(Long jobId, UnicastProcessor<MatchJobDTO> processor) {
+        watchers.computeIfPresent(jobId, (id, list) -> {
+            list.remove(processor);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private JobHandle reserveJob(Long serviceRequestId, boolean refresh) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            // Locking the request row serializes concurrent reservations for it: the second one waits here and
+            // then sees the first one's job, instead of both finding none and starting two LLM runs.
+            ServiceRequest serviceRequest = ServiceRequest.findById(serviceRequestId, LockModeType.PESSIMISTIC_WRITE);
+            if (serviceRequest == null) {
+                throw new NotFoundException("ServiceRequest not found with ID: " + serviceRequestId);
+            }
+            MatchJob latest = MatchJob.find("serviceRequest.id = ?1 order by id desc", serviceRequestId).firstResult();
+            if (latest != null && isReusable(latest, refresh)) {
+                return new JobHandle(toDto(latest), false);
+            }
+            MatchJob job = new MatchJob();
+            job.serviceRequest = serviceRequest;
+            job.status = MatchJobStatus.PENDING;
+            job.persist();
+            return new JobHandle(toDto(job), true);
+        });
+    }
+
+    private boolean isReusable(MatchJob job, boolean refresh) {
+        switch (job.status) {
+            case COMPLETED:
+                return !refresh && isCurrentPool(job);
+            case PENDING:
+            case RUNNING:
+                return job.updatedAt != null && job.updatedAt.isAfter(LocalDateTime.now().minus(staleAfter));
+            default:
+                return false;
+        }
+    }
+
+    private record JobHandle(MatchJobDTO job, boolean created) {
+    }
+
+    private MatchJobDTO toDto(MatchJob job) {
+        MatchJobDTO dto = new MatchJobDTO();
+        dto.setJobId(job.id);
+        dto.setServiceRequestId(job.serviceRequest.id);
+        dto.setStatus(job.status);
+        dto.setErrorMessage(job.errorMessage);
+        dto.setCreatedAt(job.createdAt);
+        dto.setCompletedAt(job.completedAt);
+        if (job.resultJson != null) {
+            try {
+                dto.setResult(objectMapper.readValue(job.resultJson, MatchResponseDTO.class));
+            } catch (JsonProcessingException e) {
+                LOG.errorf(e, "Stored result of match job %d could not be read", job.id);
+            }
+        }
+        return dto;
+    }
+}
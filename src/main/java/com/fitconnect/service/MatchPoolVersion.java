@@ -0,0 +1,65 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.MatchPool;
+import com.fitconnect.entity.Professional;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+/**
+ * Version of the verified pool as stored in the database, for results that outlive this process (match jobs).
+ * It moves in the same transaction as the profile change, and only when something the matcher sees changed,
+ * so every node and every restart agrees on it. {@link MatchResultCache} keeps its own in-memory version for
+ * the per-node result cache.
+ */
+@ApplicationScoped
+public class MatchPoolVersion {
+
+    private static final Logger LOG = Logger.getLogger(MatchPoolVersion.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        // Every node runs this at startup; the first one creates the row.
+        entityManager.createNativeQuery("INSERT INTO match_pool (id, version) VALUES (?1, 0) ON DUPLICATE KEY UPDATE id = id")
+            .setParameter(1, MatchPool.ID)
+            .executeUpdate();
+    }
+
+    /** The current version; must be called inside a transaction. */
+    public long current() {
+        return entityManager.createQuery("select p.version from MatchPool p where p.id = ?1", Long.class)
+            .setParameter(1, MatchPool.ID)
+            .getSingleResult();
+    }
+
+    // Runs inside the transaction that changed the profile: the version moves if and only if that commits.
+    // Concurrent changes queue on the row, which is fine at the rate profiles are edited.
+    void onProfileChanged(@Observes ProfessionalProfileChangedEvent event) {
+        Professional professional = Professional.findById(event.getProfessionalId());
+        if (professional == null) {
+            return;
+        }
+        String hash = hash(event);
+        if (hash.equals(professional.matcherStateHash)) {
+            return;
+        }
+        professional.matcherStateHash = hash;
+        MatchPool.update("version = version + 1 where id = ?1", MatchPool.ID);
+        LOG.debugf("Verified pool changed by professional %d.", event.getProfessionalId());
+    }
+
+    private static String hash(ProfessionalProfileChangedEvent event) {
+        byte[] state = event.matcherVisibleState().toString().getBytes(StandardCharsets.UTF_8);
+        return HexFormat.of().formatHex(DocumentTextExtractor.sha256().digest(state));
+    }
+}
@@ -0,0 +1,101 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchResponseDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts matching shortly after a service request is created and stores the result as a match job,
+ * so the client's first GET /matches is usually answered without waiting on the LLM.
+ */
+@ApplicationScoped
+public class MatchPrecomputeService {
+
+    private static final Logger LOG = Logger.getLogger(MatchPrecomputeService.class);
+
+    @Inject
+    MatchJobService matchJobService;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-precompute.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // Also the debounce window: another trigger for the same request within it restarts the wait.
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-precompute.delay", defaultValue = "2s")
+    Duration delay;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-precompute.max-concurrent", defaultValue = "2")
+    int maxConcurrent;
+
+    // Stored results older than this are treated as stale and matching runs synchronously instead.
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-precompute.max-age", defaultValue = "30m")
+    Duration maxAge;
+
+    private ScheduledExecutorService scheduler;
+    private final Map<Long, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // The pool size is the cap on concurrent precompute jobs; further ones wait in the queue.
+        scheduler = Executors.newScheduledThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "match-precompute-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void onServiceRequestCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ServiceRequestCreatedEvent event) {
+        if (enabled) {
+            schedule(event.getServiceRequestId());
+        }
+    }
+
+    public void schedule(Long serviceRequestId) {
+        pending.compute(serviceRequestId, (id, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return scheduler.schedule(() -> precompute(id), delay.toMillis(), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /** A precomputed result for the request, unless there is none yet, it is older than the max age or the verified pool changed since. */
+    public Optional<MatchResponseDTO> storedResult(Long serviceRequestId) {
+        return matchJobService.findCompletedResult(serviceRequestId, maxAge);
+    }
+
+    private void precompute(Long serviceRequestId) {
+        pending.remove(serviceRequestId);
+        try {
+            matchJobService.runJob(serviceRequestId);
+            LOG.infof("Precomputed matches for service request %d.", serviceRequestId);
+        } catch (Exception e) {
+            LOG.warnf(e, "Precomputing matches for service request %d failed; they will be computed on request.", serviceRequestId);
+        }
+    }
+}
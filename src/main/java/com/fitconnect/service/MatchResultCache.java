@@ -0,0 +1,104 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchCacheStatsDTO;
+import com.fitconnect.dto.MatchResponseDTO;
+import com.fitconnect.entity.ServiceRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of match results keyed by the request content and the version of the verified pool.
+ * The pool version only moves when something the matcher can see about a professional changes,
+ * so unrelated edits (phone number, address) don't throw away paid LLM results.
+ */
+@ApplicationScoped
+public class MatchResultCache {
+
+    private static final Logger LOG = Logger.getLogger(MatchResultCache.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-cache.maximum-size", defaultValue = "1000")
+    long maximumSize;
+
+    // Safety net for changes made on other nodes, which don't bump this node's pool version.
+    @Inject
+    @ConfigProperty(name = "fitconnect.match-cache.expire-after-write", defaultValue = "30m")
+    Duration expireAfterWrite;
+
+    private final AtomicLong poolVersion = new AtomicLong();
+    private final Map<Long, List<Object>> matcherVisibleState = new ConcurrentHashMap<>();
+    private Cache<Key, MatchResponseDTO> cache;
+
+    public record Key(String category, String serviceDescription, String budget, long poolVersion) {
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "match-results");
+    }
+
+    public Key keyFor(ServiceRequest serviceRequest) {
+        return new Key(
+            normalise(serviceRequest.category),
+            normalise(serviceRequest.serviceDescription),
+            normalise(serviceRequest.budget),
+            poolVersion.get());
+    }
+
+    public MatchResponseDTO get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(Key key, MatchResponseDTO response) {
+        cache.put(key, response);
+    }
+
+    public long poolVersion() {
+        return poolVersion.get();
+    }
+
+    public MatchCacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new MatchCacheStatsDTO(
+            stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate(),
+            cache.estimatedSize(), poolVersion.get());
+    }
+
+    void onProfileChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProfessionalProfileChangedEvent event) {
+        List<Object> state = event.matcherVisibleState();
+        List<Object> previous = matcherVisibleState.put(event.getProfessionalId(), state);
+        // A professional this node hasn't seen yet may already have been in the pool, so that counts as a change too.
+        if (previous == null || !previous.equals(state)) {
+            long version = poolVersion.incrementAndGet();
+            LOG.debugf("Verified pool changed by professional %d; match cache pool version is now %d.", event.getProfessionalId(), Long.valueOf(version));
+        }
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+}
@@ -2,24 +2,25 @@ package com.fitconnect.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fitconnect.dto.LLMStructuredMatchResponse;
+import com.fitconnect.dto.MatchCandidateDTO;
 import com.fitconnect.dto.MatchResponseDTO;
 import com.fitconnect.dto.MatchedProfessionalDTO;
-import com.fitconnect.entity.Professional;
-import com.fitconnect.entity.ProfileStatus;
 import com.fitconnect.entity.ServiceRequest;
-import com.fitconnect.entity.Skill;
-import com.fitconnect.llm.ProfessionalMatcherAiService;
+import com.fitconnect.llm.LlmBudgetExceededException;
+import com.fitconnect.llm.LlmCallRejectedException;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -29,7 +30,7 @@ public class MatchingService {
     private static final Logger LOG = Logger.getLogger(MatchingService.class);
 
     @Inject
-    ProfessionalMatcherAiService matcherAiService;
+    ShardedMatcher shardedMatcher;
 
     @Inject
     ObjectMapper objectMapper;
@@ -38,51 +39,99 @@ public class MatchingService {
     @ConfigProperty(name = "quarkus.langchain4j.openai.api-key")
     String openaiApiKey;
 
-    @Transactional
-    public MatchResponseDTO findMatchesForServiceRequest(Long serviceRequestId) {
-        if (openaiApiKey == null || openaiApiKey.isEmpty() || "YOUR_OPENAI_API_KEY".equals(openaiApiKey.trim())) {
-            LOG.warn("OpenAI API key is not configured. Skipping LLM matching.");
-            return new MatchResponseDTO("LLM matching skipped: API key not configured.", new ArrayList<>());
-        }
+    @Inject
+    ProfessionalSearchIndex searchIndex;
+
+    @Inject
+    ProfessionalVectorIndex vectorIndex;
+
+    @Inject
+    MatchResultCache matchCache;
 
-        ServiceRequest serviceRequest = ServiceRequest.findById(serviceRequestId);
+    @Inject
+    MatchCandidateLoader candidateLoader;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.matching.candidate-limit", defaultValue = "25")
+    int candidateLimit;
+
+    private static final int LOCAL_RESULT_LIMIT = 3;
+    // Reciprocal rank fusion damping constant; 60 is the value from the original RRF paper.
+    private static final int RRF_K = 60;
+
+    /**
+     * Not transactional on purpose: reads happen in short transactions of their own and the LLM is called with
+     * no connection held, so pool occupancy doesn't grow with model latency. Must not be called inside a
+     * transaction for the same reason.
+     */
+    public MatchResponseDTO findMatchesForServiceRequest(Long serviceRequestId) {
+        // Read phase. The detached request only carries the fields the prompt and the cache key use.
+        ServiceRequest serviceRequest = QuarkusTransaction.requiringNew().call(() -> ServiceRequest.findById(serviceRequestId));
         if (serviceRequest == null) {
             LOG.warnf("ServiceRequest with ID %d not found.", serviceRequestId);
             throw new NotFoundException("ServiceRequest not found with ID: " + serviceRequestId);
         }
 
-        List<Professional> verifiedProfessionals = Professional.list("profileStatus", ProfileStatus.VERIFIED);
-        if (verifiedProfessionals.isEmpty()) {
+        MatchResultCache.Key cacheKey = matchCache.keyFor(serviceRequest);
+        MatchResponseDTO cached = matchCache.get(cacheKey);
+        if (cached != null) {
+            LOG.debugf("Serving cached matches for service request ID: %d (pool version %d)", serviceRequestId, Long.valueOf(cacheKey.poolVersion()));
+            return cached;
+        }
+
+        searchIndex.ensureBuilt();
+        if (searchIndex.size() == 0) {
             LOG.info("No verified professionals available to match for service request ID: " + serviceRequestId);
-            return new MatchResponseDTO("No verified professionals available.", new ArrayList<>());
+            return cache(cacheKey, new MatchResponseDTO("No verified professionals available.", new ArrayList<>()));
+        }
+
+        String query = String.join(" ",
+            serviceRequest.category != null ? serviceRequest.category : "",
+            serviceRequest.serviceDescription != null ? serviceRequest.serviceDescription : "");
+        List<ProfessionalSearchIndex.ScoredProfessional> relevant = fuse(
+            searchIndex.search(query, candidateLimit),
+            vectorIndex.nearest(query, candidateLimit),
+            candidateLimit);
+        if (relevant.isEmpty()) {
+            // A vague or misspelled request shouldn't end with no matches while the pool isn't empty; let the LLM
+            // judge the fullest profiles instead.
+            LOG.infof("No verified professionals matched the terms of service request ID: %d; shortlisting from the whole pool.", serviceRequestId);
+        }
+        List<ProfessionalSearchIndex.ScoredProfessional> shortlist = relevant.isEmpty() ? searchIndex.top(candidateLimit) : relevant;
+
+        // One projection query plus one skills query; the same map hydrates the ranked result.
+        Map<Long, MatchCandidateDTO> candidates = QuarkusTransaction.requiringNew().call(() -> candidateLoader.loadVerified(
+            shortlist.stream().map(ProfessionalSearchIndex.ScoredProfessional::professionalId).collect(Collectors.toList())));
+
+        if (openaiApiKey == null || openaiApiKey.isEmpty() || "YOUR_OPENAI_API_KEY".equals(openaiApiKey.trim())) {
+            LOG.warn("OpenAI API key is not configured. Falling back to local ranking.");
+            return cache(cacheKey, rankLocally(shortlist, candidates, "LLM matching skipped: API key not configured."));
         }
 
-        String professionalProfilesData = verifiedProfessionals.stream()
-            .map(pro -> String.format(
-                "ID: %d, Name: %s, Profession: %s, YearsExp: %s, Summary: %s, About: %s, Skills: [%s]",
-                pro.id,
-                pro.getName(),
-                pro.profession,
-                pro.yearsOfExperience != null ? pro.yearsOfExperience.toString() : "N/A",
-                pro.summarizedSkills != null ? pro.summarizedSkills : "N/A",
-                pro.aboutYou != null ? pro.aboutYou : "N/A",
-                pro.skills != null ? pro.skills.stream().map(Skill::getName).collect(Collectors.joining(", ")) : "N/A"
-            ))
-            .collect(Collectors.joining("\n---\n"));
-
-        LOG.infof("Finding matches for Service Request ID: %d. Number of professionals considered: %d", serviceRequestId, verifiedProfessionals.size());
+        LOG.infof("Finding matches for Service Request ID: %d. Shortlisted %d of %d verified professionals.",
+            serviceRequestId, candidates.size(), searchIndex.size());
+        // LLM phase, outside any transaction.
         LLMStructuredMatchResponse llmResponse = null;
         try {
-            llmResponse = matcherAiService.findTopMatches(serviceRequest, professionalProfilesData);
+            llmResponse = shardedMatcher.rank(serviceRequest, shortlist.stream()
+                .map(scored -> candidates.get(scored.professionalId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        } catch (LlmCallRejectedException e) {
+            LOG.warnf("Skipping LLM matching for service request ID %d: %s", serviceRequestId, e.getMessage());
+            return rankLocally(shortlist, candidates, e instanceof LlmBudgetExceededException
+                ? "LLM matching skipped: token budget exhausted."
+                : "LLM matching skipped: model temporarily unavailable.");
         } catch (Exception e) {
             LOG.error("Error calling LLM for matching: " + e.getMessage(), e);
-            return new MatchResponseDTO("Error during LLM matching process.", new ArrayList<>());
+            // Not cached: the failure is usually transient and the next call should retry the LLM.
+            return rankLocally(shortlist, candidates, "Error during LLM matching process.");
         }
 
 
         if (llmResponse == null || llmResponse.getRankedProfessionals() == null || llmResponse.getRankedProfessionals().isEmpty()) {
             LOG.info("LLM returned no matches for service request ID: " + serviceRequestId);
-            return new MatchResponseDTO(llmResponse != null && llmResponse.getRankingRationale() != null ? llmResponse.getRankingRationale() : "LLM provided no suitable matches.", new ArrayList<>());
+            return cache(cacheKey, new MatchResponseDTO(llmResponse != null && llmResponse.getRankingRationale() != null ? llmResponse.getRankingRationale() : "LLM provided no suitable matches.", new ArrayList<>()));
         }
 
         List<MatchedProfessionalDTO> matchedDtos = new ArrayList<>();
@@ -91,14 +140,56 @@ public class MatchingService {
             .filter(rankedPro -> rankedPro.getProfessionalId() != null) // Ensure ID is not null
             .sorted(Comparator.comparingInt(LLMStructuredMatchResponse.RankedProfessional::getRank))
             .forEach(rankedPro -> {
-                Professional proEntity = Professional.findById(rankedPro.professionalId);
-                if (proEntity != null) {
-                    matchedDtos.add(new MatchedProfessionalDTO(proEntity));
+                MatchCandidateDTO candidate = candidates.get(rankedPro.professionalId);
+                if (candidate != null) {
+                    matchedDtos.add(new MatchedProfessionalDTO(candidate));
                 } else {
-                    LOG.warnf("LLM returned Professional ID %d but it was not found in database.", rankedPro.professionalId);
+                    LOG.warnf("LLM returned Professional ID %d which was not in the shortlist.", rankedPro.professionalId);
                 }
             });
 
-        return new MatchResponseDTO(llmResponse.getRankingRationale(), matchedDtos);
+        return cache(cacheKey, new MatchResponseDTO(llmResponse.getRankingRationale(), matchedDtos));
+    }
+
+    // Write phase. Optimistic check: if the verified pool changed while we were ranking, the result may already
+    // be stale, so it is returned but not cached.
+    private MatchResponseDTO cache(MatchResultCache.Key key, MatchResponseDTO response) {
+        if (matchCache.poolVersion() != key.poolVersion()) {
+            LOG.debugf("Verified pool changed during matching (version %d -> %d); result not cached.", Long.valueOf(key.poolVersion()), Long.valueOf(matchCache.poolVersion()));
+            return response;
+        }
+        matchCache.put(key, response);
+        return response;
+    }
+
+    // Merges the keyword and semantic rankings; a professional found by both rises to the top.
+    private static List<ProfessionalSearchIndex.ScoredProfessional> fuse(
+            List<ProfessionalSearchIndex.ScoredProfessional> keywordHits,
+            List<ProfessionalSearchIndex.ScoredProfessional> semanticHits,
+            int limit) {
+        Map<Long, Double> fused = new HashMap<>();
+        for (int i = 0; i < keywordHits.size(); i++) {
+            fused.merge(keywordHits.get(i).professionalId(), 1.0 / (RRF_K + i + 1), Double::sum);
+        }
+        for (int i = 0; i < semanticHits.size(); i++) {
+            fused.merge(semanticHits.get(i).professionalId(), 1.0 / (RRF_K + i + 1), Double::sum);
+        }
+        return fused.entrySet().stream()
+            .map(e -> new ProfessionalSearchIndex.ScoredProfessional(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparingDouble(ProfessionalSearchIndex.ScoredProfessional::score).reversed()
+                .thenComparing(ProfessionalSearchIndex.ScoredProfessional::professionalId))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    // Used when the LLM is not configured or fails: the fused shortlist order is the ranking.
+    private MatchResponseDTO rankLocally(List<ProfessionalSearchIndex.ScoredProfessional> shortlist, Map<Long, MatchCandidateDTO> candidates, String reason) {
+        List<MatchedProfessionalDTO> matchedDtos = shortlist.stream()
+            .map(scored -> candidates.get(scored.professionalId()))
+            .filter(Objects::nonNull)
+            .limit(LOCAL_RESULT_LIMIT)
+            .map(MatchedProfessionalDTO::new)
+            .collect(Collectors.toList());
+        return new MatchResponseDTO(reason + " Ranked locally by keyword and semantic relevance to the request.", matchedDtos);
     }
 }
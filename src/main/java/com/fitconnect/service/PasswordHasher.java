@@ -0,0 +1,188 @@
+package com.fitconnect.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.wildfly.security.password.Password;
+import org.wildfly.security.password.PasswordFactory;
+import org.wildfly.security.password.WildFlyElytronPasswordProvider;
+import org.wildfly.security.password.interfaces.BCryptPassword;
+import org.wildfly.security.password.spec.EncryptablePasswordSpec;
+import org.wildfly.security.password.spec.IteratedSaltedPasswordAlgorithmSpec;
+import org.wildfly.security.password.util.ModularCrypt;
+
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * bcrypt hashing and verification on a small dedicated pool, so a burst of logins or registrations uses at
+ * most {@code threads} cores instead of competing with every other request for CPU. Work beyond
+ * {@code queue-size} waiting calls is rejected with {@link RejectedExecutionException}.
+ * Hashes are stored in modular crypt format ({@code $2a$<cost>$...}); {@link #needsRehash} tells the login
+ * path when a stored hash uses another cost (or the old format) and should be replaced.
+ */
+@ApplicationScoped
+public class PasswordHasher {
+
+    private static final Logger LOG = Logger.getLogger(PasswordHasher.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    // bcrypt work factor (log2 of the rounds); each step doubles the cost of a hash and a verification.
+    @Inject
+    @ConfigProperty(name = "fitconnect.password-hashing.cost", defaultValue = "10")
+    int cost;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.password-hashing.threads", defaultValue = "2")
+    int threads;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.password-hashing.queue-size", defaultValue = "64")
+    int queueSize;
+
+    // PasswordFactory is stateless once created and safe to share between threads.
+    private final PasswordFactory passwordFactory;
+    private final SecureRandom random = new SecureRandom();
+    private ThreadPoolExecutor executor;
+
+    public PasswordHasher() {
+        try {
+            passwordFactory = PasswordFactory.getInstance(BCryptPassword.ALGORITHM_BCRYPT, WildFlyElytronPasswordProvider.getInstance());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("bcrypt is not available", e);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("fitconnect.password.queued", executor, pool -> pool.getQueue().size())
+            .description("Password hash and verify calls waiting for a hashing thread")
+            .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String plainPassword) {
+        return run("hash", () -> {
+            byte[] salt = new byte[BCryptPassword.BCRYPT_SALT_SIZE];
+            random.nextBytes(salt);
+            Password password = passwordFactory.generatePassword(
+                new EncryptablePasswordSpec(plainPassword.toCharArray(), new IteratedSaltedPasswordAlgorithmSpec(cost, salt)));
+            return ModularCrypt.encodeAsString(password);
+        });
+    }
+
+    /** @return whether {@code plainPassword} matches {@code storedHash}; false for a hash that can't be read */
+    public boolean verify(String plainPassword, String storedHash) {
+        BCryptPassword stored = decode(storedHash);
+        if (stored == null || plainPassword == null) {
+            return false;
+        }
+        return run("verify", () -> passwordFactory.verify(stored, plainPassword.toCharArray()));
+    }
+
+    /** Cheap check, no hashing: true when {@code storedHash} isn't a bcrypt hash at the configured cost. */
+    public boolean needsRehash(String storedHash) {
+        BCryptPassword stored = decode(storedHash);
+        return stored == null || stored.getIterationCount() != cost || isLegacyFormat(storedHash);
+    }
+
+    private BCryptPassword decode(String storedHash) {
+        if (storedHash == null) {
+            return null;
+        }
+        try {
+            return (BCryptPassword) passwordFactory.translate(ModularCrypt.decode(normalize(storedHash)));
+        } catch (InvalidKeySpecException | InvalidKeyException | ClassCastException e) {
+            LOG.warn("Stored password hash is not a readable bcrypt hash.");
+            return null;
+        }
+    }
+
+    // Hashes used to be stored as Arrays.toString(char[]), i.e. "[$, 2, a, $, 1, 0, ...]".
+    private static boolean isLegacyFormat(String storedHash) {
+        return storedHash.startsWith("[") && storedHash.endsWith("]");
+    }
+
+    private static String normalize(String storedHash) {
+        return isLegacyFormat(storedHash)
+            ? storedHash.substring(1, storedHash.length() - 1).replace(", ", "")
+            : storedHash;
+    }
+
+    private interface HashingTask<T> {
+        T call() throws GeneralSecurityException;
+    }
+
+    private <T> T run(String operation, HashingTask<T> task) {
+        long submitted = System.nanoTime();
+        Callable<T> timed = () -> {
+            long started = System.nanoTime();
+            timer("fitconnect.password.queue", "Time password work waited for a hashing thread", operation)
+                .record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                return task.call();
+            } finally {
+                timer("fitconnect.password.compute", "Time spent computing bcrypt", operation)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+        Future<T> future;
+        try {
+            future = executor.submit(timed);
+        } catch (RejectedExecutionException e) {
+            Counter.builder("fitconnect.password.rejected")
+                .description("Password hash and verify calls refused because the hashing queue was full")
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+            throw new RejectedExecutionException("Password hashing is saturated; " + queueSize + " calls already waiting.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for password " + operation, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password " + operation + " failed", e.getCause());
+        }
+    }
+
+    private Timer timer(String name, String description, String operation) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("operation", operation)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+}
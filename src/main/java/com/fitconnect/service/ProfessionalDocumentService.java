@@ -0,0 +1,192 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfessionalDocument;
+import com.fitconnect.entity.ProfessionalDocumentContent;
+import com.fitconnect.storage.DocumentStore;
+import com.fitconnect.storage.StoredDocument;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.NotFoundException;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Single place where uploaded files become ProfessionalDocuments, for every registration path.
+@ApplicationScoped
+public class ProfessionalDocumentService {
+
+    private static final Logger LOG = Logger.getLogger(ProfessionalDocumentService.class);
+
+    @Inject
+    DocumentStore documentStore;
+
+    /**
+     * Where a document's bytes are. {@code localFile} is set when they are a file on this node (zero-copy
+     * download); otherwise they are streamed from the store, or, when {@code legacy}, from the
+     * professional_document_contents BLOB.
+     */
+    public record DocumentContent(Long documentId, Long ownerId, String fileName, String fileType, String contentHash,
+                                  long size, Path localFile, boolean legacy) {
+    }
+
+    @FunctionalInterface
+    public interface ContentReader<T> {
+        T read(InputStream content) throws IOException;
+    }
+
+    /** Streams each upload into the document store and persists its metadata; runs in the caller's transaction. */
+    public List<ProfessionalDocument> storeUploads(Professional professional, List<FileUpload> uploads) {
+        List<ProfessionalDocument> documents = new ArrayList<>();
+        if (uploads == null) {
+            return documents;
+        }
+        for (FileUpload upload : uploads) {
+            StoredDocument stored;
+            try (InputStream content = Files.newInputStream(upload.uploadedFile())) {
+                stored = documentStore.put(content);
+            } catch (IOException e) {
+                LOG.error("Failed to store uploaded document: " + upload.fileName(), e);
+                throw new RuntimeException("Failed to store document: " + upload.fileName(), e);
+            }
+
+            ProfessionalDocument doc = new ProfessionalDocument();
+            doc.setProfessional(professional);
+            doc.setFileName(upload.fileName());
+            doc.setFileType(upload.contentType());
+            doc.setContentHash(stored.contentHash());
+            doc.setFileSize(stored.size());
+            doc.persist();
+            documents.add(doc);
+            LOG.infof("Stored document %s (%d bytes%s) as %s for professional %s", upload.fileName(), stored.size(),
+                stored.deduplicated() ? ", already stored" : "", stored.contentHash(), professional.email);
+        }
+        return documents;
+    }
+
+    /**
+     * Metadata is read with a projection so the legacy BLOB column is only loaded for rows that still need it.
+     * With a {@code requesterId}, a document owned by someone else is refused from that projection, before the
+     * store is asked for its content; null skips the check (admins).
+     *
+     * @throws ForbiddenException when the document belongs to another professional
+     */
+    @Transactional
+    public DocumentContent getContent(Long documentId, Long requesterId) {
+        List<Object[]> rows = ProfessionalDocument.getEntityManager()
+            .createQuery("select d.professional.id, d.fileName, d.fileType, d.contentHash, d.fileSize, d.storagePath "
+                + "from ProfessionalDocument d where d.id = ?1", Object[].class)
+            .setParameter(1, documentId)
+            .getResultList();
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Document not found with ID: " + documentId);
+        }
+        Object[] row = rows.get(0);
+        Long ownerId = (Long) row[0];
+        String fileName = (String) row[1];
+        String fileType = (String) row[2];
+        String contentHash = (String) row[3];
+        Long fileSize = (Long) row[4];
+        String storagePath = (String) row[5];
+        if (requesterId != null && !requesterId.equals(ownerId)) {
+            throw new ForbiddenException("You are not authorized to download this document.");
+        }
+
+        try {
+            if (storagePath != null && Files.exists(Paths.get(storagePath))) {
+                Path file = Paths.get(storagePath);
+                return new DocumentContent(documentId, ownerId, fileName, fileType, contentHash, Files.size(file), file, false);
+            }
+            if (contentHash != null && fileSize != null) {
+                Optional<Path> file = documentStore.localFile(contentHash);
+                if (file.isPresent()) {
+                    return new DocumentContent(documentId, ownerId, fileName, fileType, contentHash, Files.size(file.get()), file.get(), false);
+                }
+                if (documentStore.exists(contentHash)) {
+                    return new DocumentContent(documentId, ownerId, fileName, fileType, contentHash, fileSize, null, false);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to locate content of document " + documentId, e);
+        }
+        ProfessionalDocumentContent legacyContent = ProfessionalDocumentContent.findById(documentId);
+        if (legacyContent == null) {
+            LOG.warnf("Content of document %d is missing from the document store.", documentId);
+            throw new NotFoundException("Content of document " + documentId + " is not available.");
+        }
+        long size;
+        try {
+            size = fileSize != null ? fileSize : legacyContent.content.length();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read the size of document " + documentId, e);
+        }
+        return new DocumentContent(documentId, ownerId, fileName, fileType, contentHash, size, null, true);
+    }
+
+    /** Copies {@code [offset, offset + length)} of content that isn't a local file to {@code output}. */
+    public void copyContent(DocumentContent content, long offset, long length, OutputStream output) throws IOException {
+        if (content.legacy()) {
+            readLegacyContent(content.documentId(), stream -> {
+                if (stream == null) {
+                    throw new IOException("Content of document " + content.documentId() + " disappeared");
+                }
+                stream.skipNBytes(offset);
+                copy(stream, output, length);
+                return null;
+            });
+            return;
+        }
+        try (InputStream stream = documentStore.open(content.contentHash(), offset, length)) {
+            if (stream == null) {
+                throw new IOException("Content " + content.contentHash() + " disappeared from the document store");
+            }
+            copy(stream, output, length);
+        }
+    }
+
+    /**
+     * Runs {@code reader} over the legacy BLOB of a document, streamed through {@link java.sql.Blob} in its own
+     * short transaction (the stream is only valid inside it). The reader gets null when there is no such row.
+     */
+    public <T> T readLegacyContent(Long documentId, ContentReader<T> reader) throws IOException {
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> {
+                ProfessionalDocumentContent legacyContent = ProfessionalDocumentContent.findById(documentId);
+                if (legacyContent == null) {
+                    return reader.read(null);
+                }
+                try (InputStream stream = legacyContent.content.getBinaryStream()) {
+                    return reader.read(stream);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void copy(InputStream stream, OutputStream output, long length) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long remaining = length;
+        int read;
+        while (remaining > 0 && (read = stream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+            output.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+}
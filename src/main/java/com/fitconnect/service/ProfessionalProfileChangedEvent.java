@@ -0,0 +1,54 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.Skill;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Fired whenever something the matcher looks at changes on a professional.
+// Carries a snapshot so observers running after commit don't need the persistence context.
+@Getter
+@AllArgsConstructor
+public class ProfessionalProfileChangedEvent {
+
+    private final Long professionalId;
+    private final boolean verified;
+    private final String name;
+    private final Integer yearsOfExperience;
+    private final String profession;
+    private final String summarizedSkills;
+    private final String aboutYou;
+    private final List<String> skillNames;
+
+    public static ProfessionalProfileChangedEvent of(Professional pro) {
+        List<String> skillNames = pro.skills != null
+            ? pro.skills.stream().map(Skill::getName).collect(Collectors.toList())
+            : new ArrayList<>();
+        return of(pro, skillNames);
+    }
+
+    // For when the skill names are already known, so unloaded skill references don't get loaded one by one.
+    public static ProfessionalProfileChangedEvent of(Professional pro, List<String> skillNames) {
+        return new ProfessionalProfileChangedEvent(
+            pro.id,
+            pro.profileStatus == ProfileStatus.VERIFIED,
+            pro.getName(),
+            pro.yearsOfExperience,
+            pro.profession,
+            pro.summarizedSkills,
+            pro.aboutYou,
+            skillNames
+        );
+    }
+
+    // Everything MatchingService puts in the prompt or the response for a professional; empty when not in the pool.
+    public List<Object> matcherVisibleState() {
+        return verified ? Arrays.asList(name, yearsOfExperience, profession, summarizedSkills, aboutYou, skillNames) : List.of();
+    }
+}
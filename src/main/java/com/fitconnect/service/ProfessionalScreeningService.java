@@ -1,26 +1,30 @@
 package com.fitconnect.service;
 
+import com.fitconnect.dto.LLMProfileAnalysis;
 import com.fitconnect.entity.Professional;
 import com.fitconnect.entity.ProfessionalDocument;
 import com.fitconnect.entity.ProfileStatus;
-import com.fitconnect.entity.Skill;
+import com.fitconnect.llm.LlmBudgetExceededException;
+import com.fitconnect.llm.LlmCallRejectedException;
+import com.fitconnect.llm.LlmGuards;
+import com.fitconnect.llm.LlmUsageTracker;
 import com.fitconnect.llm.ProfessionalProfileAnalyzer;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
-import org.apache.tika.Tika;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
 import org.jboss.logging.Logger;
 
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -35,93 +39,246 @@ public class ProfessionalScreeningService {
     @ConfigProperty(name = "quarkus.langchain4j.openai.api-key")
     String openaiApiKey;
 
+    @Inject
+    DocumentTextExtractor textExtractor;
+
+    @Inject
+    DocumentCondenser documentCondenser;
+
+    @Inject
+    SkillDictionary skillDictionary;
+
+    @Inject
+    LlmUsageTracker usageTracker;
+
+    @Inject
+    LlmGuards guards;
+
+    @Inject
+    Event<ProfessionalProfileChangedEvent> profileChanged;
+
+    /**
+     * Runs in three phases so no database connection is held while documents are parsed or the model is called:
+     * a short read transaction, extraction and the LLM call outside any transaction, and a short write
+     * transaction. The write re-reads the professional and discards the result if the screening input changed
+     * in the meantime; the change itself has queued another screening. Must not be called inside a transaction.
+     *
+     * @return false when screening was deferred because the model is unavailable, true otherwise
+     */
+    public boolean screenProfessionalProfile(Long professionalId) {
+        return screenProfessionalProfile(professionalId, false);
+    }
 
-    @Transactional
-    public void screenProfessionalProfile(Long professionalId) {
+    /**
+     * As {@link #screenProfessionalProfile(Long)}; with {@code force} the profile goes to the LLM even if nothing
+     * changed since its last screening, as bulk re-screening after a model or prompt change needs.
+     */
+    public boolean screenProfessionalProfile(Long professionalId, boolean force) {
         LOG.infof("Starting screening process for professional ID: %d", professionalId);
 
         if (openaiApiKey == null || openaiApiKey.isEmpty() || "YOUR_OPENAI_API_KEY".equals(openaiApiKey.trim())) {
             LOG.warn("OpenAI API key is not configured or is using the placeholder value. Skipping LLM screening.");
-            Professional pro = Professional.findById(professionalId);
-            if (pro != null) {
-                pro.summarizedSkills = "LLM screening skipped: API key not configured.";
-                pro.persist();
-            }
-            return;
+            QuarkusTransaction.requiringNew().run(() -> {
+                Professional pro = Professional.findById(professionalId);
+                if (pro != null) {
+                    pro.summarizedSkills = "LLM screening skipped: API key not configured.";
+                    pro.persist();
+                    profileChanged.fire(ProfessionalProfileChangedEvent.of(pro));
+                }
+            });
+            return true;
         }
 
-        Professional professional = Professional.findById(professionalId);
-        if (professional == null) {
+        // Read phase.
+        ScreeningInput input = QuarkusTransaction.requiringNew().call(() -> {
+            Professional professional = Professional.findById(professionalId);
+            if (professional == null) {
+                return null;
+            }
+            List<ProfessionalDocument> documents = professional.documents != null ? professional.documents : List.of();
+            return new ScreeningInput(ScreeningFingerprint.profileData(professional),
+                documents.stream().map(DocumentTextExtractor.DocumentSource::of).collect(Collectors.toList()),
+                professional.lastScreenedAt, professional.screeningFingerprint);
+        });
+        if (input == null) {
             LOG.errorf("Professional with ID %d not found.", professionalId);
-            return;
+            return true;
         }
+        List<DocumentTextExtractor.DocumentSource> documents = input.documents();
 
-        StringBuilder documentTexts = new StringBuilder();
-        Tika tika = new Tika();
-        if (professional.documents != null) {
-            for (ProfessionalDocument doc : professional.documents) {
-                try {
-                    Path docPath = Paths.get(doc.getStoragePath());
-                    if (Files.exists(docPath)) {
-                        try (InputStream stream = Files.newInputStream(docPath)) {
-                            String text = tika.parseToString(stream);
-                            documentTexts.append(text).append(" --- ");
-                            LOG.infof("Successfully extracted text from document: %s", doc.getFileName());
-                        }
-                    } else {
-                        LOG.warnf("Document not found at path: %s for professional ID: %d", doc.getStoragePath(), professionalId);
-                    }
-                } catch (Exception e) {
-                    LOG.errorf(e, "Failed to read or parse document %s for professional ID: %d", doc.getFileName(), professionalId);
-                    documentTexts.append("Error extracting text from document: ").append(doc.getFileName()).append(" --- ");
-                }
+        // Documents hashed by an earlier screening let an unchanged profile skip extraction as well as the LLM.
+        if (!force && documents.stream().allMatch(doc -> doc.contentHash() != null)
+                && input.isUnchanged(professionalId, fingerprint(input.profileData(), documents))) {
+            return true;
+        }
+
+        // Extraction and LLM phase, outside any transaction.
+        List<String> extractedTexts = new ArrayList<>();
+        StringBuilder extractionErrors = new StringBuilder();
+        List<DocumentTextExtractor.Extraction> extractions = textExtractor.extractAll(documents);
+        List<DocumentTextExtractor.DocumentSource> hashed = new ArrayList<>();
+        // Documents whose text the LLM won't get; their hash stays out of the fingerprint so a later screening reads them again.
+        Set<Long> unreadable = new HashSet<>();
+        for (int i = 0; i < documents.size(); i++) {
+            DocumentTextExtractor.DocumentSource doc = documents.get(i);
+            DocumentTextExtractor.Extraction extraction = extractions.get(i);
+            hashed.add(extraction.contentHash() != null
+                ? new DocumentTextExtractor.DocumentSource(doc.documentId(), doc.fileName(), doc.storagePath(), extraction.contentHash(), doc.size())
+                : doc);
+            if (extraction.outcome() != DocumentTextExtractor.Outcome.EXTRACTED) {
+                unreadable.add(doc.documentId());
+            }
+            switch (extraction.outcome()) {
+                case EXTRACTED:
+                    extractedTexts.add(extraction.text());
+                    LOG.infof("Successfully extracted text from document: %s", doc.fileName());
+                    break;
+                case MISSING:
+                    LOG.warnf("Document not found at path: %s for professional ID: %d", doc.storagePath(), professionalId);
+                    break;
+                default:
+                    LOG.errorf("Failed to read or parse document %s for professional ID: %d: %s", doc.fileName(), professionalId, extraction.error());
+                    extractionErrors.append("Error extracting text from document: ").append(doc.fileName()).append(" --- ");
             }
         }
 
-        String profileData = String.format("Profession: %s Years of Experience: %s Qualifications: %s About: %s Social Media/Links: %s",
-            professional.profession != null ? professional.profession : "N/A",
-            professional.yearsOfExperience != null ? professional.yearsOfExperience.toString() : "N/A",
-            professional.qualifications != null ? professional.qualifications : "N/A",
-            professional.aboutYou != null ? professional.aboutYou : "N/A",
-            professional.socialMediaLinks != null && !professional.socialMediaLinks.isEmpty() ? professional.socialMediaLinks.toString() : "Not provided"
-        );
+        String fingerprint = fingerprint(input.profileData(), hashed, unreadable);
+        if (!force && input.isUnchanged(professionalId, fingerprint)) {
+            QuarkusTransaction.requiringNew().run(() -> {
+                Professional professional = Professional.findById(professionalId);
+                if (professional != null) {
+                    storeContentHashes(professional, hashed);
+                }
+            });
+            return true;
+        }
+
+        // Condensed to fitconnect.condense.token-budget so long CVs and manuals don't blow the context window.
+        String profileData = input.profileData();
+        String documentTexts = documentCondenser.condense(extractedTexts) + " --- " + extractionErrors;
 
         LOG.info("Sending data to LLM for summarization and skill extraction...");
-        String summary = profileAnalyzer.summarizeExpertiseAndSkills(profileData, documentTexts.toString());
-        professional.summarizedSkills = summary;
+        String promptInput = profileData + " " + documentTexts;
+        LLMProfileAnalysis analysis;
+        try {
+            // Budget outside the guard, as in ShardedMatcher.
+            analysis = usageTracker.track("ProfessionalProfileAnalyzer.analyzeProfile", promptInput,
+                () -> guards.analyzer().call(() -> profileAnalyzer.analyzeProfile(profileData, documentTexts)));
+        } catch (LlmCallRejectedException e) {
+            // Left pending verification so the profile can be screened again once the model is available.
+            LOG.warnf("Deferring screening of professional ID %d: %s", professionalId, e.getMessage());
+            QuarkusTransaction.requiringNew().run(() -> {
+                Professional professional = Professional.findById(professionalId);
+                if (professional != null && professional.lastScreenedAt == null) {
+                    // A re-screen keeps the previous result instead of replacing it with the deferral notice.
+                    professional.summarizedSkills = e instanceof LlmBudgetExceededException
+                        ? "LLM screening deferred: token budget exhausted."
+                        : "LLM screening deferred: model temporarily unavailable.";
+                    professional.persist();
+                    profileChanged.fire(ProfessionalProfileChangedEvent.of(professional));
+                }
+            });
+            return false;
+        }
+        String summary = analysis != null ? analysis.getSummary() : null;
         LOG.infof("LLM Summary for professional ID %d: %s", professionalId, summary);
 
-        String skillsListString = profileAnalyzer.extractSkillsList(profileData, documentTexts.toString());
-        LOG.infof("LLM Extracted Skills List for professional ID %d: %s", professionalId, skillsListString);
-
-        if (skillsListString != null && !skillsListString.isEmpty()) {
-            List<String> skillNames = Arrays.stream(skillsListString.split(","))
-                                           .map(String::trim)
-                                           .filter(s -> !s.isEmpty())
-                                           .distinct()
-                                           .collect(Collectors.toList());
-
-            List<Skill> skillsToAssociate = new ArrayList<>();
-            for (String skillName : skillNames) {
-                Optional<Skill> existingSkillOpt = Skill.find("lower(name)", skillName.toLowerCase()).firstResultOptional();
-                Skill skillToPersist;
-                if (existingSkillOpt.isPresent()) {
-                    skillToPersist = existingSkillOpt.get();
-                } else {
-                    skillToPersist = new Skill();
-                    skillToPersist.name = skillName;
-                    skillToPersist.persist();
-                }
-                skillsToAssociate.add(skillToPersist);
+        List<String> skillNames = analysis != null && analysis.getSkills() != null ? analysis.getSkills() : List.of();
+        LOG.infof("LLM Extracted Skills for professional ID %d: %s", professionalId, skillNames);
+
+        // Write phase.
+        Runnable write = () -> QuarkusTransaction.requiringNew().run(() -> {
+            Professional professional = Professional.findById(professionalId);
+            if (professional == null) {
+                LOG.warnf("Professional ID %d was deleted while being screened; result discarded.", professionalId);
+                return;
+            }
+            storeContentHashes(professional, hashed);
+            // Optimistic check on what was screened, not on a row version: a phone number change during the
+            // LLM call doesn't invalidate the result, a new description or document does.
+            List<ProfessionalDocument> current = professional.documents != null ? professional.documents : List.of();
+            if (!fingerprint.equals(fingerprint(ScreeningFingerprint.profileData(professional),
+                    current.stream().map(DocumentTextExtractor.DocumentSource::of).collect(Collectors.toList()), unreadable))) {
+                LOG.infof("Profile of professional ID %d changed while it was being screened; result discarded.", professionalId);
+                return;
+            }
+
+            professional.summarizedSkills = summary;
+            SkillDictionary.ResolvedSkills skills = skillDictionary.resolve(skillNames);
+            professional.skills = skills.skills();
+            professional.setProfileStatus(ProfileStatus.VERIFIED);
+            professional.lastScreenedAt = LocalDateTime.now();
+            professional.screeningFingerprint = fingerprint;
+
+            // Flushed here so a stale skill id fails inside the transaction, where it can be told apart.
+            professional.persistAndFlush();
+            profileChanged.fire(ProfessionalProfileChangedEvent.of(professional, skills.names()));
+            LOG.infof("Successfully screened and updated profile for professional ID: %d", professionalId);
+        });
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            // A skill deleted behind the dictionary's back fails the skill links' foreign key. Forget those skills
+            // and write once more, which inserts them again.
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            LOG.warnf("Skill dictionary was out of date for %s; re-creating them for professional ID %d.", skillNames, professionalId);
+            skillDictionary.evict(skillNames);
+            write.run();
+        }
+        return true;
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // What the read phase hands to the phases that run without a transaction.
+    private record ScreeningInput(String profileData, List<DocumentTextExtractor.DocumentSource> documents,
+                                  LocalDateTime lastScreenedAt, String screeningFingerprint) {
+
+        boolean isUnchanged(Long professionalId, String fingerprint) {
+            if (lastScreenedAt == null || !fingerprint.equals(screeningFingerprint)) {
+                return false;
             }
-            professional.skills = skillsToAssociate;
-        } else {
-            professional.skills = new ArrayList<>();
+            LOG.infof("Profile and documents of professional ID %d are unchanged since %s; skipping LLM screening.",
+                professionalId, lastScreenedAt);
+            return true;
         }
+    }
 
-        professional.setProfileStatus(ProfileStatus.VERIFIED);
+    private static void storeContentHashes(Professional professional, List<DocumentTextExtractor.DocumentSource> hashed) {
+        if (professional.documents == null) {
+            return;
+        }
+        Map<Long, String> hashes = new HashMap<>();
+        for (DocumentTextExtractor.DocumentSource doc : hashed) {
+            if (doc.documentId() != null && doc.contentHash() != null) {
+                hashes.put(doc.documentId(), doc.contentHash());
+            }
+        }
+        for (ProfessionalDocument doc : professional.documents) {
+            String hash = hashes.get(doc.getId());
+            if (hash != null && doc.getContentHash() == null) {
+                doc.setContentHash(hash);
+            }
+        }
+    }
+
+    private static String fingerprint(String profileData, List<DocumentTextExtractor.DocumentSource> documents) {
+        return fingerprint(profileData, documents, Set.of());
+    }
 
-        professional.persist();
-        LOG.infof("Successfully screened and updated profile for professional ID: %d", professionalId);
+    private static String fingerprint(String profileData, List<DocumentTextExtractor.DocumentSource> documents, Set<Long> unreadable) {
+        return ScreeningFingerprint.of(profileData, documents.stream()
+            .map(doc -> doc.contentHash() != null && !unreadable.contains(doc.documentId())
+                ? doc.contentHash() : "unreadable:" + doc.storagePath())
+            .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,218 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchCandidateDTO;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the verified professional pool, scored with BM25.
+ * Used to shortlist candidates before the LLM ranks them, and as a local ranking when the LLM is unavailable.
+ */
+@ApplicationScoped
+public class ProfessionalSearchIndex {
+
+    private static final Logger LOG = Logger.getLogger(ProfessionalSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field boosts are applied as repeated term frequency (a cheap BM25F approximation).
+    private static final int PROFESSION_WEIGHT = 3;
+    private static final int SKILL_WEIGHT = 2;
+    private static final int SUMMARY_WEIGHT = 1;
+    private static final int ABOUT_WEIGHT = 1;
+
+    @Inject
+    MatchCandidateLoader candidateLoader;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+    private volatile boolean built;
+
+    public record ScoredProfessional(Long professionalId, double score) {
+    }
+
+    @Scheduled(every = "{fitconnect.search.rebuild-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Transactional
+    public void rebuild() {
+        Map<Long, Map<String, Integer>> fresh = new HashMap<>();
+        for (MatchCandidateDTO pro : candidateLoader.loadAllVerified().values()) {
+            fresh.put(pro.id, termFrequencies(pro.profession, pro.skills, pro.summarizedSkills, pro.aboutYou));
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            documentLengths.clear();
+            totalLength = 0;
+            fresh.forEach(this::putUnlocked);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.infof("Professional search index rebuilt with %d verified professionals.", fresh.size());
+    }
+
+    public void ensureBuilt() {
+        if (!built) {
+            rebuild();
+        }
+    }
+
+    void onProfileChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProfessionalProfileChangedEvent event) {
+        if (!built) {
+            return; // The first rebuild will pick the change up.
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(event.getProfessionalId());
+            if (event.isVerified()) {
+                putUnlocked(event.getProfessionalId(), termFrequencies(
+                    event.getProfession(), event.getSkillNames(), event.getSummarizedSkills(), event.getAboutYou()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ScoredProfessional> search(String query, int limit) {
+        LinkedHashSet<String> queryTerms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return Collections.emptyList();
+            }
+            double avgLength = (double) totalLength / docCount;
+            for (String term : queryTerms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    int docLength = documentLengths.get(entry.getKey());
+                    double norm = tf + K1 * (1 - B + B * docLength / avgLength);
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+            .map(e -> new ScoredProfessional(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparingDouble(ScoredProfessional::score).reversed()
+                .thenComparing(ScoredProfessional::professionalId))
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * The pool without a query: the most complete profiles first, for when nothing in the request matched.
+     * The score is the indexed profile length.
+     */
+    public List<ScoredProfessional> top(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return documentLengths.entrySet().stream()
+                .map(e -> new ScoredProfessional(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingDouble(ScoredProfessional::score).reversed()
+                    .thenComparing(ScoredProfessional::professionalId))
+                .limit(limit)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(String profession, List<String> skillNames, String summarizedSkills, String aboutYou) {
+        Map<String, Integer> tf = new HashMap<>();
+        addField(tf, profession, PROFESSION_WEIGHT);
+        if (skillNames != null) {
+            skillNames.forEach(skill -> addField(tf, skill, SKILL_WEIGHT));
+        }
+        addField(tf, summarizedSkills, SUMMARY_WEIGHT);
+        addField(tf, aboutYou, ABOUT_WEIGHT);
+        return tf;
+    }
+
+    private static void addField(Map<String, Integer> tf, String text, int weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            tf.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static int documentLength(Map<String, Integer> tf) {
+        int length = 0;
+        for (int count : tf.values()) {
+            length += count;
+        }
+        return length;
+    }
+
+    private void putUnlocked(Long id, Map<String, Integer> tf) {
+        int length = documentLength(tf);
+        documents.put(id, tf);
+        documentLengths.put(id, length);
+        totalLength += length;
+        tf.forEach((term, count) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, count));
+    }
+
+    private void removeUnlocked(Long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= documentLengths.remove(id);
+        for (String term : previous.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
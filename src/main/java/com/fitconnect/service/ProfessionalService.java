@@ -4,70 +4,46 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fitconnect.dto.ProfessionalRegisterRequest;
 import com.fitconnect.entity.Professional;
-import com.fitconnect.entity.ProfessionalDocument;
 import com.fitconnect.entity.User;
 import com.fitconnect.entity.ProfileStatus;
 import com.fitconnect.entity.UserRole;
 import com.fitconnect.dto.ProfessionalProfileUpdateDTO; // Added
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 // import jakarta.ws.rs.ForbiddenException; // Not used in this service directly
 import jakarta.ws.rs.NotFoundException; // Added
 import org.jboss.logging.Logger;
-import org.jboss.resteasy.reactive.multipart.FileUpload;
-import org.wildfly.security.password.Password;
-import org.wildfly.security.password.PasswordFactory;
-import org.wildfly.security.password.spec.ClearPasswordSpec;
-import org.wildfly.security.password.util.ModularCrypt;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.spec.InvalidKeySpecException;
 import java.util.*;
 
 @ApplicationScoped
 public class ProfessionalService {
 
     private static final Logger LOG = Logger.getLogger(ProfessionalService.class);
-    private final Path UPLOAD_DIR = Paths.get("file-uploads", "professional-documents");
 
     @Inject
     ObjectMapper objectMapper;
 
-    private PasswordFactory passwordFactory;
+    @Inject
+    Event<ProfessionalProfileChangedEvent> profileChanged;
 
-    public ProfessionalService() {
-        try {
-            passwordFactory = PasswordFactory.getInstance(org.wildfly.security.password.interfaces.BCryptPassword.ALGORITHM_BCRYPT);
-            Files.createDirectories(UPLOAD_DIR);
-        } catch (Exception e) {
-            LOG.error("Failed to initialize PasswordFactory or create upload directory", e);
-            throw new RuntimeException("Service initialization failed", e);
-        }
-    }
+    @Inject
+    ScreeningQueueService screeningQueue;
 
-    private String hashPassword(String password) {
-        ClearPasswordSpec clearSpec = new ClearPasswordSpec(password.toCharArray());
-        Password newPassword = null;
-        try {
-            newPassword = passwordFactory.generatePassword(clearSpec);
-        } catch (InvalidKeySpecException e) {
-            throw new RuntimeException(e);
-        }
-        try {
-            return Arrays.toString(ModularCrypt.encode(newPassword));
-        } catch (InvalidKeySpecException e) {
-            throw new RuntimeException(e);
-        }
-    }
+    @Inject
+    ProfessionalDocumentService documentService;
+
+    @Inject
+    PasswordHasher passwordHasher;
 
     @Transactional
     public Professional registerProfessional(ProfessionalRegisterRequest request) {
+        // Hashed before the first query so no connection is held while bcrypt runs.
+        String passwordHash = passwordHasher.hash(request.password);
         if (User.find("email", request.email).firstResultOptional().isPresent()) {
             throw new IllegalArgumentException("Email already exists: " + request.email);
         }
@@ -75,7 +51,7 @@ public class ProfessionalService {
         Professional pro = new Professional();
         pro.setName(request.name);
         pro.setEmail(request.email);
-        pro.setPassword(hashPassword(request.password));
+        pro.setPassword(passwordHash);
         pro.setPhoneNumber(request.phoneNumber);
         pro.setRole(UserRole.PROFESSIONAL);
 
@@ -98,37 +74,8 @@ public class ProfessionalService {
 
         pro.persist();
 
-        List<ProfessionalDocument> profDocs = new ArrayList<>();
-        if (request.documents != null && !request.documents.isEmpty()) {
-            for (FileUpload uploadedFile : request.documents) {
-                try {
-                    String originalFileName = uploadedFile.fileName();
-                    String extension = "";
-                    int i = originalFileName.lastIndexOf('.');
-                    if (i > 0) {
-                        extension = originalFileName.substring(i);
-                    }
-                    String newFileName = UUID.randomUUID().toString() + extension;
-                    Path filePath = UPLOAD_DIR.resolve(newFileName);
-
-                    Files.copy(uploadedFile.uploadedFile(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-                    ProfessionalDocument doc = new ProfessionalDocument();
-                    doc.setProfessional(pro);
-                    doc.setFileName(originalFileName);
-                    doc.setFileType(uploadedFile.contentType());
-                    doc.setStoragePath(filePath.toString());
-                    doc.persist();
-                    profDocs.add(doc);
-                    LOG.infof("Stored document: %s as %s for professional %s", originalFileName, newFileName, pro.email);
-
-                } catch (IOException e) {
-                    LOG.error("Failed to store uploaded document: " + uploadedFile.fileName(), e);
-                    throw new RuntimeException("Failed to store document: " + uploadedFile.fileName(), e);
-                }
-            }
-        }
-        pro.documents = profDocs;
+        pro.documents = documentService.storeUploads(pro, request.documents);
+        screeningQueue.enqueue(pro.id);
 
         LOG.infof("Professional registered successfully: %s", pro.email);
 
@@ -156,6 +103,8 @@ public class ProfessionalService {
             throw new NotFoundException("Professional not found with ID: " + professionalId);
         }
 
+        String screenedBefore = ScreeningFingerprint.profileData(professional);
+
         if (dto.getName() != null) professional.setName(dto.getName());
         if (dto.getPhoneNumber() != null) professional.setPhoneNumber(dto.getPhoneNumber());
         if (dto.getProfession() != null) professional.profession = dto.getProfession();
@@ -170,6 +119,11 @@ public class ProfessionalService {
         }
 
         professional.persist();
+        // Name or phone number changes leave the screening input, and so the fingerprint, as it was.
+        if (!screenedBefore.equals(ScreeningFingerprint.profileData(professional))) {
+            screeningQueue.enqueue(professionalId);
+        }
+        profileChanged.fire(ProfessionalProfileChangedEvent.of(professional));
         LOG.infof("Professional profile updated for ID %d.", professionalId);
         return professional;
     }
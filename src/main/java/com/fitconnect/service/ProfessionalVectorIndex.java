@@ -0,0 +1,242 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchCandidateDTO;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Semantic nearest-neighbour lookup over verified professional profiles.
+ * Vectors come from {@link ProfileEmbedder}; the HNSW graph is persisted to disk and reloaded at startup
+ * when its content checksum still matches the database, and rebuilt periodically like the BM25 index so
+ * edits handled by other nodes show up.
+ */
+@ApplicationScoped
+public class ProfessionalVectorIndex {
+
+    private static final Logger LOG = Logger.getLogger(ProfessionalVectorIndex.class);
+
+    // Bump when the file layout changes; files in another format are rebuilt.
+    private static final int FILE_FORMAT = 2;
+    private static final int HNSW_M = 16;
+    private static final int HNSW_EF_CONSTRUCTION = 100;
+
+    @Inject
+    ProfileEmbedder embedder;
+
+    @Inject
+    MatchCandidateLoader candidateLoader;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.vector-index.path", defaultValue = "data/professional-vectors.hnsw")
+    String indexPath;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.vector-index.ef-search", defaultValue = "64")
+    int efSearch;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private HnswIndex index = newIndex();
+    // Per-professional hash of the embedded text, and their sum; the sum is stored with the graph.
+    private Map<Long, Long> entryHashes = new HashMap<>();
+    private long contentChecksum;
+    private volatile boolean dirty;
+
+    private record Persisted(HnswIndex index, long contentChecksum) {
+    }
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        Persisted loaded = load();
+        if (loaded == null) {
+            rebuild();
+            return;
+        }
+        // Compared by content, not entry count: edits made while this node was down must not be missed.
+        Map<Long, Long> hashes = new HashMap<>();
+        for (MatchCandidateDTO pro : candidateLoader.loadAllVerified().values()) {
+            hashes.put(pro.id, entryHash(pro.id, pro.profession, pro.skills, pro.summarizedSkills, pro.aboutYou));
+        }
+        if (loaded.index().size() == hashes.size() && checksum(hashes) == loaded.contentChecksum()) {
+            replace(loaded.index(), hashes);
+            LOG.infof("Loaded professional vector index with %d entries from %s", loaded.index().size(), indexPath);
+        } else {
+            LOG.info("Persisted vector index is out of date with the verified profiles; rebuilding.");
+            rebuild();
+        }
+    }
+
+    @Scheduled(every = "{fitconnect.vector-index.rebuild-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    void onShutdown(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    @Transactional
+    public void rebuild() {
+        HnswIndex fresh = newIndex();
+        Map<Long, Long> hashes = new HashMap<>();
+        for (MatchCandidateDTO pro : candidateLoader.loadAllVerified().values()) {
+            fresh.add(pro.id, embedder.embed(embedder.profileText(pro.profession, pro.skills, pro.summarizedSkills, pro.aboutYou)));
+            hashes.put(pro.id, entryHash(pro.id, pro.profession, pro.skills, pro.summarizedSkills, pro.aboutYou));
+        }
+        replace(fresh, hashes);
+        dirty = true;
+        flush();
+        LOG.infof("Professional vector index rebuilt with %d verified professionals.", fresh.size());
+    }
+
+    void onProfileChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProfessionalProfileChangedEvent event) {
+        float[] vector = event.isVerified() ? embedder.embed(embedder.profileText(
+            event.getProfession(), event.getSkillNames(), event.getSummarizedSkills(), event.getAboutYou())) : null;
+        lock.writeLock().lock();
+        try {
+            Long previousHash;
+            if (vector != null) {
+                index.add(event.getProfessionalId(), vector);
+                long hash = entryHash(event.getProfessionalId(), event.getProfession(), event.getSkillNames(),
+                    event.getSummarizedSkills(), event.getAboutYou());
+                previousHash = entryHashes.put(event.getProfessionalId(), hash);
+                contentChecksum += hash;
+            } else {
+                index.remove(event.getProfessionalId());
+                previousHash = entryHashes.remove(event.getProfessionalId());
+            }
+            if (previousHash != null) {
+                contentChecksum -= previousHash;
+            }
+            // Tombstones widen every search; compact once they outnumber live entries.
+            if (index.tombstones() > Math.max(32, index.size())) {
+                index = index.compact();
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProfessionalSearchIndex.ScoredProfessional> nearest(String text, int limit) {
+        float[] query = embedder.embed(text);
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit, efSearch).stream()
+                .map(n -> new ProfessionalSearchIndex.ScoredProfessional(n.key(), 1 - n.distance()))
+                .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(every = "{fitconnect.vector-index.flush-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        if (!dirty) {
+            return;
+        }
+        Path target = Paths.get(indexPath);
+        lock.readLock().lock();
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "professional-vectors", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_FORMAT);
+                out.writeInt(ProfileEmbedder.MODEL_VERSION);
+                out.writeLong(contentChecksum);
+                index.writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            LOG.errorf(e, "Failed to persist professional vector index to %s", target);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Persisted load() {
+        Path source = Paths.get(indexPath);
+        if (!Files.exists(source)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != FILE_FORMAT || in.readInt() != ProfileEmbedder.MODEL_VERSION) {
+                LOG.info("Persisted vector index was written in another format or embedder version; rebuilding.");
+                return null;
+            }
+            long checksum = in.readLong();
+            HnswIndex loaded = HnswIndex.readFrom(in);
+            return loaded.dimensions() == ProfileEmbedder.DIMENSIONS ? new Persisted(loaded, checksum) : null;
+        } catch (IOException e) {
+            LOG.warnf(e, "Could not read persisted vector index from %s; rebuilding.", source);
+            return null;
+        }
+    }
+
+    private void replace(HnswIndex fresh, Map<Long, Long> hashes) {
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            entryHashes = hashes;
+            contentChecksum = checksum(hashes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A sum, so it can be kept up to date one profile at a time and doesn't depend on iteration order.
+    private static long checksum(Map<Long, Long> hashes) {
+        long sum = 0;
+        for (long hash : hashes.values()) {
+            sum += hash;
+        }
+        return sum;
+    }
+
+    // Skills sorted: the database and the change events may list them in different orders.
+    private long entryHash(Long id, String profession, List<String> skills, String summarizedSkills, String aboutYou) {
+        List<String> sortedSkills = skills != null ? skills.stream().sorted().collect(Collectors.toList()) : List.of();
+        String text = id + "\n" + embedder.profileText(profession, sortedSkills, summarizedSkills, aboutYou);
+        return ByteBuffer.wrap(DocumentTextExtractor.sha256().digest(text.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+
+    private static HnswIndex newIndex() {
+        return new HnswIndex(ProfileEmbedder.DIMENSIONS, HNSW_M, HNSW_EF_CONSTRUCTION);
+    }
+}
@@ -0,0 +1,119 @@
+package com.fitconnect.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local, dependency-free text embedder based on the hashing trick: word unigrams, word bigrams and
+ * character trigrams are hashed into a fixed number of signed buckets, log-scaled and L2-normalised.
+ * Trigrams give it some tolerance for morphology ("trainer" / "training") without a network model.
+ */
+@ApplicationScoped
+public class ProfileEmbedder {
+
+    public static final int DIMENSIONS = 384;
+    // Bump when the feature extraction changes so persisted vectors get rebuilt.
+    public static final int MODEL_VERSION = 1;
+
+    private static final float UNIGRAM_WEIGHT = 1.0f;
+    private static final float BIGRAM_WEIGHT = 0.5f;
+    private static final float TRIGRAM_WEIGHT = 0.25f;
+
+    public float[] embed(String text) {
+        Map<String, Float> features = new HashMap<>();
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            features.merge("w:" + token, UNIGRAM_WEIGHT, Float::sum);
+            if (i + 1 < tokens.size()) {
+                features.merge("b:" + token + " " + tokens.get(i + 1), BIGRAM_WEIGHT, Float::sum);
+            }
+            String padded = "^" + token + "$";
+            for (int j = 0; j + 3 <= padded.length(); j++) {
+                features.merge("c:" + padded.substring(j, j + 3), TRIGRAM_WEIGHT, Float::sum);
+            }
+        }
+
+        float[] vector = new float[DIMENSIONS];
+        for (Map.Entry<String, Float> feature : features.entrySet()) {
+            int hash = murmurHash(feature.getKey());
+            int bucket = Math.floorMod(hash, DIMENSIONS);
+            float sign = (hash >>> 31) == 0 ? 1f : -1f;
+            vector[bucket] += sign * (float) Math.log1p(feature.getValue());
+        }
+        normalise(vector);
+        return vector;
+    }
+
+    public String profileText(String profession, List<String> skillNames, String summarizedSkills, String aboutYou) {
+        StringBuilder text = new StringBuilder();
+        append(text, profession);
+        if (skillNames != null) {
+            skillNames.forEach(skill -> append(text, skill));
+        }
+        append(text, summarizedSkills);
+        append(text, aboutYou);
+        return text.toString();
+    }
+
+    private static void append(StringBuilder text, String value) {
+        if (value != null && !value.isBlank()) {
+            text.append(value).append(". ");
+        }
+    }
+
+    private static void normalise(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    // 32-bit MurmurHash3 over UTF-8 bytes; String.hashCode clusters too much for short n-grams.
+    private static int murmurHash(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        int h = 0x9747b28c;
+        int i = 0;
+        for (; i + 4 <= data.length; i += 4) {
+            int k = (data[i] & 0xff) | (data[i + 1] & 0xff) << 8 | (data[i + 2] & 0xff) << 16 | (data[i + 3] & 0xff) << 24;
+            h ^= mix(k);
+            h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+        }
+        // Tail of 1-3 bytes
+        int remaining = data.length - i;
+        if (remaining > 0) {
+            int k = data[i] & 0xff;
+            if (remaining > 1) {
+                k ^= (data[i + 1] & 0xff) << 8;
+            }
+            if (remaining > 2) {
+                k ^= (data[i + 2] & 0xff) << 16;
+            }
+            h ^= mix(k);
+        }
+        h ^= data.length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int mix(int k) {
+        k *= 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        return k * 0x1b873593;
+    }
+}
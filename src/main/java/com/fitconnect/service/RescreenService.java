@@ -0,0 +1,409 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.RescreenProgressDTO;
+import com.fitconnect.dto.RescreenRequestDTO;
+import com.fitconnect.entity.RescreenRun;
+import com.fitconnect.entity.RescreenRunStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.LockMode;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk re-screening of professionals selected by profile status and/or last screening time.
+ * A run walks the selection in id order in batches of {@code batch-size}, pausing {@code batch-delay}
+ * between batches, and checkpoints the last processed id after each one. Runs are leased like screening
+ * tasks, so a run left behind by a stopped node is picked up from its checkpoint by the next poll.
+ * Each node drives at most one run with {@code concurrency} screenings in flight; screening goes through
+ * the analyzer guard, which is separate from the matcher's, so a bulk run can't take interactive matching's slots.
+ */
+@ApplicationScoped
+public class RescreenService {
+
+    private static final Logger LOG = Logger.getLogger(RescreenService.class);
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Inject
+    ProfessionalScreeningService screeningService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.rescreen.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.rescreen.concurrency", defaultValue = "1")
+    int concurrency;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.rescreen.batch-size", defaultValue = "20")
+    int defaultBatchSize;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.rescreen.batch-delay", defaultValue = "5s")
+    Duration batchDelay;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.rescreen.lease", defaultValue = "5m")
+    Duration lease;
+
+    // Wait before retrying a professional whose screening was deferred (budget exhausted, circuit open).
+    @Inject
+    @ConfigProperty(name = "fitconnect.rescreen.deferred-pause", defaultValue = "1m")
+    Duration deferredPause;
+
+    private final String nodeId = nodeId();
+    private final AtomicBoolean runnerBusy = new AtomicBoolean();
+    private ExecutorService runner;
+    private ExecutorService workers;
+
+    private enum Outcome { SCREENED, FAILED, STOPPED }
+
+    private record Result(Long professionalId, Outcome outcome, String error) {}
+
+    @PostConstruct
+    void init() {
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rescreen-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "rescreen-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public RescreenProgressDTO start(RescreenRequestDTO request) {
+        int batchSize = request != null && request.getBatchSize() != null ? request.getBatchSize() : defaultBatchSize;
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE + ".");
+        }
+        RescreenProgressDTO progress = QuarkusTransaction.requiringNew().call(() -> {
+            RescreenRun run = new RescreenRun();
+            if (request != null) {
+                run.profileStatus = request.getProfileStatus();
+                run.screenedBefore = request.getScreenedBefore();
+            }
+            run.batchSize = batchSize;
+            run.lastProcessedId = 0L;
+            run.total = select(run, "count(p)", Long.class).getSingleResult();
+            run.persist();
+            LOG.infof("Started re-screening run %d: %d professionals (status %s, screened before %s).",
+                run.id, run.total, run.profileStatus, run.screenedBefore);
+            return toProgress(run);
+        });
+        poll();
+        return progress;
+    }
+
+    public RescreenProgressDTO getProgress(Long runId) {
+        return QuarkusTransaction.requiringNew().call(() -> toProgress(findRun(runId)));
+    }
+
+    public List<RescreenProgressDTO> listRuns() {
+        return QuarkusTransaction.requiringNew().call(() -> RescreenRun.<RescreenRun>list("order by id desc").stream()
+            .map(RescreenService::toProgress)
+            .collect(Collectors.toList()));
+    }
+
+    /** The professional being screened when the run is cancelled still finishes; nothing further is started. */
+    public RescreenProgressDTO cancel(Long runId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            RescreenRun run = findRun(runId);
+            if (run.status == RescreenRunStatus.RUNNING) {
+                run.status = RescreenRunStatus.CANCELLED;
+                run.finishedAt = LocalDateTime.now();
+                LOG.infof("Cancelled re-screening run %d after %d done, %d failed.", runId, run.done, run.failed);
+            }
+            return toProgress(run);
+        });
+    }
+
+    // Also resumes runs after a restart: a run whose lease has expired is claimable again.
+    @Scheduled(every = "{fitconnect.rescreen.poll-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void poll() {
+        if (!enabled || !runnerBusy.compareAndSet(false, true)) {
+            return;
+        }
+        Long runId;
+        try {
+            runId = claim();
+        } catch (RuntimeException e) {
+            runnerBusy.set(false);
+            throw e;
+        }
+        if (runId == null) {
+            runnerBusy.set(false);
+            return;
+        }
+        runner.submit(() -> {
+            try {
+                run(runId);
+            } catch (Exception e) {
+                LOG.errorf(e, "Re-screening run %d stopped unexpectedly; it resumes once its lease expires", runId);
+            } finally {
+                runnerBusy.set(false);
+            }
+        });
+    }
+
+    private Long claim() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<RescreenRun> claimable = RescreenRun.<RescreenRun>find(
+                    "status = ?1 and (leaseOwner is null or leaseExpiresAt < ?2) order by id",
+                    RescreenRunStatus.RUNNING, now)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint(HibernateHints.HINT_NATIVE_LOCK_MODE, LockMode.UPGRADE_SKIPLOCKED)
+                .page(0, 1)
+                .list();
+            if (claimable.isEmpty()) {
+                return null;
+            }
+            RescreenRun run = claimable.get(0);
+            if (run.leaseOwner != null) {
+                LOG.infof("Resuming re-screening run %d from professional ID %d (lease of %s expired).", run.id, run.lastProcessedId, run.leaseOwner);
+            }
+            run.leaseOwner = nodeId;
+            run.leaseExpiresAt = now.plus(lease);
+            return run.id;
+        });
+    }
+
+    private void run(Long runId) throws InterruptedException {
+        while (true) {
+            List<Long> batch = nextBatch(runId);
+            if (batch == null) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                finish(runId);
+                return;
+            }
+
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Long professionalId : batch) {
+                futures.add(workers.submit(() -> screen(runId, professionalId)));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Re-screening worker failed", e.getCause());
+                }
+            }
+
+            // Everything up to the last id is settled; a stopped item only happens when the run was cancelled.
+            if (!checkpoint(runId, batch.get(batch.size() - 1), results)) {
+                return;
+            }
+            Thread.sleep(batchDelay.toMillis());
+        }
+    }
+
+    // Null when the run is no longer ours to drive (cancelled, or taken over after our lease expired).
+    private List<Long> nextBatch(Long runId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            RescreenRun run = ownedRun(runId);
+            if (run == null) {
+                return null;
+            }
+            run.leaseExpiresAt = LocalDateTime.now().plus(lease);
+            return select(run, "p.id", Long.class).setMaxResults(run.batchSize).getResultList();
+        });
+    }
+
+    private Result screen(Long runId, Long professionalId) {
+        try {
+            while (true) {
+                if (!renewLease(runId)) {
+                    return record(new Result(professionalId, Outcome.STOPPED, null));
+                }
+                // Forced: a run is usually started because the model or prompt changed, which the fingerprint can't see.
+                if (screeningService.screenProfessionalProfile(professionalId, true)) {
+                    return record(new Result(professionalId, Outcome.SCREENED, null));
+                }
+                LOG.infof("Re-screening of professional %d deferred; pausing run %d for %s.", professionalId, runId, deferredPause);
+                Thread.sleep(deferredPause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(professionalId, Outcome.STOPPED, null);
+        } catch (Exception e) {
+            LOG.errorf(e, "Re-screening of professional %d failed in run %d", professionalId, runId);
+            return record(new Result(professionalId, Outcome.FAILED, e.getMessage()));
+        }
+    }
+
+    private boolean checkpoint(Long runId, Long lastProcessedId, List<Result> results) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            RescreenRun run = RescreenRun.findById(runId);
+            if (run == null || !nodeId.equals(run.leaseOwner)) {
+                LOG.warnf("Lost the lease on re-screening run %d; leaving it to its current owner.", runId);
+                return false;
+            }
+            for (Result result : results) {
+                if (result.outcome() == Outcome.SCREENED) {
+                    run.done++;
+                } else if (result.outcome() == Outcome.FAILED) {
+                    run.failed++;
+                    String error = "Professional " + result.professionalId() + ": " + result.error();
+                    run.lastError = error.length() > 1000 ? error.substring(0, 1000) : error;
+                }
+            }
+            run.lastProcessedId = lastProcessedId;
+            if (run.status != RescreenRunStatus.RUNNING) {
+                run.leaseOwner = null;
+                run.leaseExpiresAt = null;
+                return false;
+            }
+            run.leaseExpiresAt = LocalDateTime.now().plus(lease);
+            return true;
+        });
+    }
+
+    private boolean renewLease(Long runId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            RescreenRun run = ownedRun(runId);
+            if (run == null) {
+                return false;
+            }
+            run.leaseExpiresAt = LocalDateTime.now().plus(lease);
+            return true;
+        });
+    }
+
+    private void finish(Long runId) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            RescreenRun run = ownedRun(runId);
+            if (run == null) {
+                return;
+            }
+            run.status = RescreenRunStatus.COMPLETED;
+            run.finishedAt = LocalDateTime.now();
+            run.leaseOwner = null;
+            run.leaseExpiresAt = null;
+            LOG.infof("Re-screening run %d completed: %d done, %d failed.", runId, run.done, run.failed);
+        });
+    }
+
+    private RescreenRun ownedRun(Long runId) {
+        RescreenRun run = RescreenRun.findById(runId);
+        if (run == null || run.status != RescreenRunStatus.RUNNING || !nodeId.equals(run.leaseOwner)) {
+            return null;
+        }
+        return run;
+    }
+
+    private Result record(Result result) {
+        Counter.builder("fitconnect.rescreen.professionals")
+            .description("Professionals processed by bulk re-screening, by outcome")
+            .tag("outcome", result.outcome().name().toLowerCase())
+            .register(registry)
+            .increment();
+        return result;
+    }
+
+    // Selection of a run after its checkpoint, in id order so the checkpoint is a keyset cursor.
+    private static <T> TypedQuery<T> select(RescreenRun run, String projection, Class<T> type) {
+        StringBuilder where = new StringBuilder("p.id > :after");
+        Map<String, Object> params = new HashMap<>();
+        params.put("after", run.lastProcessedId);
+        if (run.profileStatus != null) {
+            where.append(" and p.profileStatus = :profileStatus");
+            params.put("profileStatus", run.profileStatus);
+        }
+        if (run.screenedBefore != null) {
+            where.append(" and (p.lastScreenedAt is null or p.lastScreenedAt < :screenedBefore)");
+            params.put("screenedBefore", run.screenedBefore);
+        }
+        String orderBy = projection.startsWith("count") ? "" : " order by p.id";
+        TypedQuery<T> query = RescreenRun.getEntityManager()
+            .createQuery("select " + projection + " from Professional p where " + where + orderBy, type);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private static RescreenRun findRun(Long runId) {
+        RescreenRun run = RescreenRun.findById(runId);
+        if (run == null) {
+            throw new NotFoundException("Re-screening run not found with ID: " + runId);
+        }
+        return run;
+    }
+
+    private static RescreenProgressDTO toProgress(RescreenRun run) {
+        RescreenProgressDTO dto = new RescreenProgressDTO();
+        dto.runId = run.id;
+        dto.status = run.status;
+        dto.profileStatus = run.profileStatus;
+        dto.screenedBefore = run.screenedBefore;
+        dto.total = run.total;
+        dto.done = run.done;
+        dto.failed = run.failed;
+        dto.remaining = Math.max(run.total - run.done - run.failed, 0);
+        dto.lastProcessedId = run.lastProcessedId;
+        dto.lastError = run.lastError;
+        dto.startedAt = run.startedAt;
+        dto.updatedAt = run.updatedAt;
+        dto.finishedAt = run.finishedAt;
+        long processed = run.done + run.failed;
+        if (run.status == RescreenRunStatus.RUNNING && processed > 0 && run.updatedAt != null) {
+            // Average rate so far, including batch delays and deferral pauses.
+            long elapsedMillis = Duration.between(run.startedAt, run.updatedAt).toMillis();
+            long etaMillis = elapsedMillis * dto.remaining / processed;
+            dto.estimatedCompletionAt = run.updatedAt.plus(Duration.ofMillis(etaMillis));
+        }
+        return dto;
+    }
+
+    private static String nodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,41 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.Professional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeMap;
+
+// Everything screening sends to the LLM, reduced to one hash: the profile fields in profileData() plus
+// the content hashes of the documents. Fields the LLM never sees (name, phone number) are not part of it.
+public final class ScreeningFingerprint {
+
+    // Bump when profileData() or the prompt changes so every profile is screened again.
+    private static final int VERSION = 1;
+
+    private ScreeningFingerprint() {
+    }
+
+    public static String profileData(Professional professional) {
+        return String.format("Profession: %s Years of Experience: %s Qualifications: %s About: %s Social Media/Links: %s",
+            professional.profession != null ? professional.profession : "N/A",
+            professional.yearsOfExperience != null ? professional.yearsOfExperience.toString() : "N/A",
+            professional.qualifications != null ? professional.qualifications : "N/A",
+            professional.aboutYou != null ? professional.aboutYou : "N/A",
+            // Sorted so the text, and the fingerprint, don't depend on map iteration order.
+            professional.socialMediaLinks != null && !professional.socialMediaLinks.isEmpty()
+                ? new TreeMap<>(professional.socialMediaLinks).toString() : "Not provided"
+        );
+    }
+
+    /** Document hashes may be in any order; a document without content should be passed as a stable marker. */
+    public static String of(String profileData, List<String> documentHashes) {
+        MessageDigest digest = DocumentTextExtractor.sha256();
+        digest.update(("v" + VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(profileData.getBytes(StandardCharsets.UTF_8));
+        documentHashes.stream().sorted().forEach(hash -> digest.update(("\n" + hash).getBytes(StandardCharsets.UTF_8)));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
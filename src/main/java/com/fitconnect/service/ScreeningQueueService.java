@@ -0,0 +1,279 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.ScreeningTask;
+import com.fitconnect.entity.ScreeningTaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.LockMode;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Durable screening queue in the screening_tasks table, shared by every application node.
+ * Workers claim due tasks with {@code SELECT ... FOR UPDATE SKIP LOCKED} and hold them under a lease;
+ * a task whose lease runs out (node died mid-screening) becomes claimable again. Failures are retried
+ * with exponential backoff until {@code max-attempts}, after which the task is parked as DEAD.
+ */
+@ApplicationScoped
+public class ScreeningQueueService {
+
+    private static final Logger LOG = Logger.getLogger(ScreeningQueueService.class);
+
+    @Inject
+    ProfessionalScreeningService screeningService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.concurrency", defaultValue = "2")
+    int concurrency;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.lease", defaultValue = "10m")
+    Duration lease;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.backoff", defaultValue = "30s")
+    Duration backoff;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.max-backoff", defaultValue = "30m")
+    Duration maxBackoff;
+
+    // Retry delay when screening was deferred because the model is unavailable (budget, circuit open).
+    @Inject
+    @ConfigProperty(name = "fitconnect.screening-queue.deferred-retry", defaultValue = "5m")
+    Duration deferredRetry;
+
+    private final String nodeId = nodeId();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<ScreeningTaskStatus, AtomicLong> depth = new EnumMap<>(ScreeningTaskStatus.class);
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "screening-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ScreeningTaskStatus status : ScreeningTaskStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            depth.put(status, count);
+            Gauge.builder("fitconnect.screening.queue.depth", count, AtomicLong::get)
+                .description("Screening tasks by status, refreshed on every poll")
+                .tag("status", status.name())
+                .register(registry);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Adds a screening task in the caller's transaction, so it exists exactly when the registration commits.
+     * Only a PENDING task makes another one redundant: a RUNNING one may already have read the old profile,
+     * and its result is then discarded in favour of the task queued here.
+     */
+    public void enqueue(Long professionalId) {
+        long pending = ScreeningTask.count("professionalId = ?1 and status = ?2", professionalId, ScreeningTaskStatus.PENDING);
+        if (pending > 0) {
+            LOG.debugf("Professional %d already has a pending screening task.", professionalId);
+            return;
+        }
+        ScreeningTask task = new ScreeningTask();
+        task.professionalId = professionalId;
+        task.persist();
+        LOG.infof("Queued screening task %d for professional %d.", task.id, professionalId);
+    }
+
+    @Scheduled(every = "{fitconnect.screening-queue.poll-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void poll() {
+        if (!enabled) {
+            return;
+        }
+        refreshDepth();
+        int freeSlots = concurrency - inFlight.get();
+        if (freeSlots <= 0) {
+            return;
+        }
+        List<Long> claimed = claim(freeSlots);
+        for (Long taskId : claimed) {
+            inFlight.incrementAndGet();
+            executor.submit(() -> {
+                try {
+                    process(taskId);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private List<Long> claim(int limit) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Rows locked by another node's claim are skipped rather than waited on.
+            List<ScreeningTask> due = ScreeningTask.<ScreeningTask>find(
+                    "(status = ?1 and nextAttemptAt <= ?2) or (status = ?3 and leaseExpiresAt < ?2) order by nextAttemptAt",
+                    ScreeningTaskStatus.PENDING, now, ScreeningTaskStatus.RUNNING)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint(HibernateHints.HINT_NATIVE_LOCK_MODE, LockMode.UPGRADE_SKIPLOCKED)
+                .page(0, limit)
+                .list();
+            for (ScreeningTask task : due) {
+                if (task.status == ScreeningTaskStatus.RUNNING) {
+                    // The previous owner's lease ran out; count it as a failed attempt so a task that kills nodes ends up DEAD.
+                    task.attempts++;
+                    task.lastError = "Lease held by " + task.leaseOwner + " expired.";
+                    if (task.attempts >= maxAttempts) {
+                        markDead(task);
+                        continue;
+                    }
+                }
+                task.status = ScreeningTaskStatus.RUNNING;
+                task.leaseOwner = nodeId;
+                task.leaseExpiresAt = now.plus(lease);
+            }
+            return due.stream().filter(task -> task.status == ScreeningTaskStatus.RUNNING).map(task -> task.id).collect(Collectors.toList());
+        });
+    }
+
+    private void process(Long taskId) {
+        Long professionalId = QuarkusTransaction.requiringNew().call(() -> ScreeningTask.<ScreeningTask>findById(taskId).professionalId);
+        Timer.Sample sample = Timer.start(registry);
+        String outcome;
+        try {
+            boolean screened = screeningService.screenProfessionalProfile(professionalId);
+            outcome = screened ? complete(taskId) : retry(taskId, deferredRetry, "Screening deferred: model unavailable.", false);
+        } catch (Exception e) {
+            LOG.errorf(e, "Screening task %d for professional %d failed", taskId, professionalId);
+            outcome = retry(taskId, null, e.getMessage(), true);
+        }
+        sample.stop(Timer.builder("fitconnect.screening.queue.task.duration")
+            .description("Time to process one screening task")
+            .tag("outcome", outcome)
+            .register(registry));
+        Counter.builder("fitconnect.screening.queue.tasks")
+            .description("Screening tasks processed, by outcome")
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment();
+    }
+
+    private String complete(Long taskId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            ScreeningTask task = ownedTask(taskId);
+            if (task == null) {
+                return "lease_lost";
+            }
+            task.status = ScreeningTaskStatus.COMPLETED;
+            task.completedAt = LocalDateTime.now();
+            task.leaseOwner = null;
+            task.leaseExpiresAt = null;
+            return "completed";
+        });
+    }
+
+    private String retry(Long taskId, Duration delay, String error, boolean countsAsAttempt) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            ScreeningTask task = ownedTask(taskId);
+            if (task == null) {
+                return "lease_lost";
+            }
+            task.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+            if (countsAsAttempt) {
+                task.attempts++;
+                if (task.attempts >= maxAttempts) {
+                    markDead(task);
+                    return "dead";
+                }
+            }
+            task.status = ScreeningTaskStatus.PENDING;
+            task.nextAttemptAt = LocalDateTime.now().plus(delay != null ? delay : backoffFor(task.attempts));
+            task.leaseOwner = null;
+            task.leaseExpiresAt = null;
+            return countsAsAttempt ? "retried" : "deferred";
+        });
+    }
+
+    // Null when another node took the task over after our lease expired; its outcome wins.
+    private ScreeningTask ownedTask(Long taskId) {
+        ScreeningTask task = ScreeningTask.findById(taskId);
+        if (task == null || task.status != ScreeningTaskStatus.RUNNING || !nodeId.equals(task.leaseOwner)) {
+            LOG.warnf("Lost the lease on screening task %d; leaving it to its current owner.", taskId);
+            return null;
+        }
+        return task;
+    }
+
+    private void markDead(ScreeningTask task) {
+        task.status = ScreeningTaskStatus.DEAD;
+        task.leaseOwner = null;
+        task.leaseExpiresAt = null;
+        LOG.errorf("Screening task %d for professional %d moved to dead letter after %d attempts: %s",
+            task.id, task.professionalId, task.attempts, task.lastError);
+    }
+
+    private Duration backoffFor(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void refreshDepth() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            depth.values().forEach(count -> count.set(0));
+            List<Object[]> rows = ScreeningTask.getEntityManager()
+                .createQuery("select t.status, count(t) from ScreeningTask t group by t.status", Object[].class)
+                .getResultList();
+            for (Object[] row : rows) {
+                depth.get((ScreeningTaskStatus) row[0]).set((Long) row[1]);
+            }
+        });
+    }
+
+    private static String nodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
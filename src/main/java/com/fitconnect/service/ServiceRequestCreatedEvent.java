@@ -0,0 +1,12 @@
+package com.fitconnect.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Fired when a client posts a new service request, so matching can start before anyone asks for it.
+@Getter
+@AllArgsConstructor
+public class ServiceRequestCreatedEvent {
+
+    private final Long serviceRequestId;
+}
@@ -9,6 +9,8 @@ import com.fitconnect.entity.Appointment; // Added
 import com.fitconnect.entity.AppointmentStatus; // Added
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import org.jboss.logging.Logger;
@@ -20,6 +22,9 @@ public class ServiceRequestService {
 
     private static final Logger LOG = Logger.getLogger(ServiceRequestService.class);
 
+    @Inject
+    Event<ServiceRequestCreatedEvent> serviceRequestCreated;
+
     @Transactional
     public ServiceRequest createServiceRequest(ServiceRequestInputDTO dto, Long clientId) {
         Client client = Client.findById(clientId);
@@ -36,6 +41,7 @@ public class ServiceRequestService {
 
         request.persist();
         LOG.infof("Service request created with ID %d for client ID %d.", request.id, clientId);
+        serviceRequestCreated.fire(new ServiceRequestCreatedEvent(request.id));
         return request;
     }
 
@@ -0,0 +1,193 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.LLMStructuredMatchResponse;
+import com.fitconnect.dto.MatchCandidateDTO;
+import com.fitconnect.entity.ServiceRequest;
+import com.fitconnect.llm.LlmCallRejectedException;
+import com.fitconnect.llm.LlmGuards;
+import com.fitconnect.llm.LlmUsageTracker;
+import com.fitconnect.llm.ProfessionalMatcherAiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks candidates with the LLM, splitting them into token-budgeted shards when they don't fit one prompt.
+ * Shards are ranked in parallel (map) and their winners are ranked once more (reduce), so latency follows
+ * the largest shard rather than the size of the candidate pool.
+ */
+@ApplicationScoped
+public class ShardedMatcher {
+
+    private static final Logger LOG = Logger.getLogger(ShardedMatcher.class);
+
+    private static final String SHARD_TIMER = "fitconnect.matching.shard.duration";
+
+    @Inject
+    ProfessionalMatcherAiService matcherAiService;
+
+    @Inject
+    LlmUsageTracker usageTracker;
+
+    @Inject
+    LlmGuards guards;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.matching.shard-token-budget", defaultValue = "6000")
+    int shardTokenBudget;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.matching.shard-concurrency", defaultValue = "4")
+    int shardConcurrency;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(shardConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "match-shard-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Candidates are expected in retrieval order, best first. */
+    public LLMStructuredMatchResponse rank(ServiceRequest serviceRequest, List<MatchCandidateDTO> candidates) {
+        List<List<MatchCandidateDTO>> shards = partition(candidates);
+        if (shards.size() <= 1) {
+            return timed("single", () -> findTopMatches(serviceRequest, formatProfiles(candidates)));
+        }
+
+        LOG.infof("Ranking %d candidates in %d shards for service request ID: %d", candidates.size(), shards.size(), serviceRequest.id);
+        List<CompletableFuture<LLMStructuredMatchResponse>> mapped = shards.stream()
+            .map(shard -> CompletableFuture.supplyAsync(
+                () -> timed("map", () -> findTopMatches(serviceRequest, formatProfiles(shard))), executor))
+            .collect(Collectors.toList());
+
+        Map<Long, MatchCandidateDTO> byId = new LinkedHashMap<>();
+        candidates.forEach(candidate -> byId.put(candidate.id, candidate));
+        Map<Long, MatchCandidateDTO> winners = new LinkedHashMap<>();
+        int failedShards = 0;
+        RuntimeException lastFailure = null;
+        for (CompletableFuture<LLMStructuredMatchResponse> future : mapped) {
+            try {
+                LLMStructuredMatchResponse shardResult = future.join();
+                if (shardResult != null && shardResult.getRankedProfessionals() != null) {
+                    shardResult.getRankedProfessionals().stream()
+                        .filter(Objects::nonNull)
+                        .map(LLMStructuredMatchResponse.RankedProfessional::getProfessionalId)
+                        .filter(byId::containsKey)
+                        .forEach(id -> winners.put(id, byId.get(id)));
+                }
+            } catch (CompletionException e) {
+                failedShards++;
+                lastFailure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                LOG.warnf(lastFailure, "A matching shard failed for service request ID: %d", serviceRequest.id);
+            }
+        }
+        if (failedShards == shards.size()) {
+            if (lastFailure instanceof LlmCallRejectedException) {
+                throw lastFailure;
+            }
+            throw new IllegalStateException("All " + shards.size() + " matching shards failed.", lastFailure);
+        }
+        if (winners.isEmpty()) {
+            LLMStructuredMatchResponse empty = new LLMStructuredMatchResponse();
+            empty.setRankingRationale("LLM provided no suitable matches.");
+            empty.setRankedProfessionals(new ArrayList<>());
+            return empty;
+        }
+
+        // Winners of every shard compete in one final round; this prompt is at most shards x 3 profiles.
+        return timed("reduce", () -> findTopMatches(serviceRequest, formatProfiles(new ArrayList<>(winners.values()))));
+    }
+
+    // Greedy packing in retrieval order, so each shard holds whole profiles up to the token budget.
+    List<List<MatchCandidateDTO>> partition(List<MatchCandidateDTO> candidates) {
+        List<List<MatchCandidateDTO>> shards = new ArrayList<>();
+        List<MatchCandidateDTO> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (MatchCandidateDTO candidate : candidates) {
+            int tokens = TokenEstimator.estimate(formatProfile(candidate));
+            if (!current.isEmpty() && currentTokens + tokens > shardTokenBudget) {
+                shards.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(candidate);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            shards.add(current);
+        }
+        return shards;
+    }
+
+    private LLMStructuredMatchResponse timed(String phase, java.util.function.Supplier<LLMStructuredMatchResponse> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SHARD_TIMER)
+                .description("Latency of one findTopMatches call while matching")
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+        }
+    }
+
+    private LLMStructuredMatchResponse findTopMatches(ServiceRequest serviceRequest, String profiles) {
+        String promptInput = String.join(" ", String.valueOf(serviceRequest.category), String.valueOf(serviceRequest.serviceDescription), profiles);
+        // Budget outside the guard: an exhausted budget must not count as a model failure or take a guard slot.
+        return usageTracker.track("ProfessionalMatcherAiService.findTopMatches", promptInput,
+            () -> guards.matcher().call(() -> matcherAiService.findTopMatches(serviceRequest, profiles)));
+    }
+
+    private static String formatProfiles(List<MatchCandidateDTO> candidates) {
+        return candidates.stream().map(ShardedMatcher::formatProfile).collect(Collectors.joining("\n---\n"));
+    }
+
+    private static String formatProfile(MatchCandidateDTO pro) {
+        return String.format(
+            "ID: %d, Name: %s, Profession: %s, YearsExp: %s, Summary: %s, About: %s, Skills: [%s]",
+            pro.id,
+            pro.name,
+            pro.profession,
+            pro.yearsOfExperience != null ? pro.yearsOfExperience.toString() : "N/A",
+            pro.summarizedSkills != null ? pro.summarizedSkills : "N/A",
+            pro.aboutYou != null ? pro.aboutYou : "N/A",
+            pro.skills.isEmpty() ? "N/A" : String.join(", ", pro.skills)
+        );
+    }
+}
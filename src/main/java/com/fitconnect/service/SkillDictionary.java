@@ -0,0 +1,146 @@
+package com.fitconnect.service;
+
+import com.fitconnect.entity.Skill;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized skill name to id and stored name, mirroring the skills table, so screening resolves known skills
+ * without a statement and only inserts and reads the ones it hasn't seen before.
+ */
+@ApplicationScoped
+public class SkillDictionary {
+
+    private static final Logger LOG = Logger.getLogger(SkillDictionary.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final Map<String, KnownSkill> skillsByNormalizedName = new ConcurrentHashMap<>();
+
+    private record KnownSkill(Long id, String name) {
+    }
+
+    /** Skills in the order asked for, and their stored names; read the names from here, the skills may be unloaded references. */
+    public record ResolvedSkills(List<Skill> skills, List<String> names) {
+    }
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        List<Object[]> rows = entityManager
+            .createQuery("select s.normalizedName, s.id, s.name from Skill s", Object[].class)
+            .getResultList();
+        rows.forEach(row -> skillsByNormalizedName.put((String) row[0], new KnownSkill((Long) row[1], (String) row[2])));
+        LOG.infof("Loaded %d skills into the skill dictionary.", skillsByNormalizedName.size());
+    }
+
+    /**
+     * Returns the skills for the given names, creating missing ones, in the order given; names that normalize
+     * to the same skill are returned once. Must be called inside a transaction.
+     */
+    public ResolvedSkills resolve(Collection<String> names) {
+        Map<String, String> byNormalized = new LinkedHashMap<>();
+        for (String name : names) {
+            String normalized = Skill.normalize(name);
+            if (normalized != null && !normalized.isEmpty()) {
+                byNormalized.putIfAbsent(normalized, name.trim());
+            }
+        }
+
+        Map<String, String> missing = byNormalized.entrySet().stream()
+            .filter(entry -> !skillsByNormalizedName.containsKey(entry.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        Map<String, Skill> loaded = missing.isEmpty() ? Map.of() : insertAndLoad(missing);
+
+        List<Skill> skills = new ArrayList<>();
+        List<String> skillNames = new ArrayList<>();
+        for (String normalized : byNormalized.keySet()) {
+            Skill skill = loaded.get(normalized);
+            if (skill != null) {
+                skills.add(skill);
+                skillNames.add(skill.name);
+                continue;
+            }
+            KnownSkill known = skillsByNormalizedName.get(normalized);
+            if (known != null) {
+                skills.add(entityManager.getReference(Skill.class, known.id()));
+                skillNames.add(known.name());
+            }
+        }
+        return new ResolvedSkills(skills, skillNames);
+    }
+
+    /** Forgets the given skills, so the next resolve inserts or reads them again instead of trusting cached ids. */
+    public void evict(Collection<String> names) {
+        names.stream().map(Skill::normalize).filter(normalized -> normalized != null).forEach(skillsByNormalizedName::remove);
+    }
+
+    // Forgets every skill; for when the skills table is emptied behind the dictionary's back.
+    void clear() {
+        skillsByNormalizedName.clear();
+    }
+
+    private Map<String, Skill> insertAndLoad(Map<String, String> missing) {
+        insertIfAbsent(missing);
+
+        // Read with a shared lock: a plain read may not see rows a concurrent screening committed after this
+        // transaction's snapshot, and those are exactly the duplicates the insert left alone.
+        List<Skill> found = Skill.<Skill>find("normalizedName in ?1", new ArrayList<>(missing.keySet()))
+            .withLock(LockModeType.PESSIMISTIC_READ)
+            .list();
+        Map<String, Skill> byName = found.stream().collect(Collectors.toMap(skill -> skill.normalizedName, skill -> skill));
+
+        // Only remember them once they are committed; a rolled-back insert would leave ids that don't exist.
+        Map<String, KnownSkill> created = found.stream()
+            .collect(Collectors.toMap(skill -> skill.normalizedName, skill -> new KnownSkill(skill.id, skill.name)));
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    skillsByNormalizedName.putAll(created);
+                }
+            }
+        });
+        return byName;
+    }
+
+    // One multi-row INSERT. A row that collides with a concurrent insert of the same skill is a no-op update,
+    // while anything else wrong with a row (too long, null) still fails the statement, unlike INSERT IGNORE.
+    private void insertIfAbsent(Map<String, String> missing) {
+        String values = missing.keySet().stream().map(key -> "(?, ?)").collect(Collectors.joining(", "));
+        Query insert = entityManager.createNativeQuery(
+            "INSERT INTO skills (name, normalized_name) VALUES " + values + " ON DUPLICATE KEY UPDATE id = id");
+        int position = 1;
+        for (Map.Entry<String, String> entry : missing.entrySet()) {
+            insert.setParameter(position++, entry.getValue());
+            insert.setParameter(position++, entry.getKey());
+        }
+        int inserted = insert.executeUpdate();
+        LOG.debugf("Inserted %d of %d new skills.", inserted, missing.size());
+    }
+}
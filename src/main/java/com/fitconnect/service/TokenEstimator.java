@@ -0,0 +1,47 @@
+package com.fitconnect.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Local prompt-size measurement for budgeting, no tokenizer model needed.
+// estimate() is the cheap chars/4 rule; count() mimics BPE pre-tokenization and is close to what the provider bills.
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    // Same split BPE tokenizers apply before merging: words with their leading space, short digit runs, punctuation runs.
+    private static final Pattern PIECES = Pattern.compile(" ?\\p{L}+| ?\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+|\\s+");
+    // Common English words are one token; longer or rarer words split into pieces of about this many letters.
+    private static final int LETTERS_PER_WORD_PIECE = 6;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        return text == null ? 0 : estimate(text.length());
+    }
+
+    public static int estimate(int characters) {
+        return (characters + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public static int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        Matcher matcher = PIECES.matcher(text);
+        while (matcher.find()) {
+            String piece = matcher.group();
+            int length = piece.startsWith(" ") ? piece.length() - 1 : piece.length();
+            if (length == 0 || Character.isWhitespace(piece.charAt(piece.length() - 1))) {
+                tokens++;
+            } else if (Character.isLetter(piece.charAt(piece.length() - 1))) {
+                tokens += (length + LETTERS_PER_WORD_PIECE - 1) / LETTERS_PER_WORD_PIECE;
+            } else {
+                tokens += (length + 1) / 2;
+            }
+        }
+        return tokens;
+    }
+}
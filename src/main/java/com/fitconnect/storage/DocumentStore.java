@@ -0,0 +1,39 @@
+package com.fitconnect.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for uploaded documents: content is stored once under the hex SHA-256 of its
+ * bytes, so the same file uploaded twice takes the space of one. Backends are chosen with
+ * {@code fitconnect.documents.store} (see {@link DocumentStores}).
+ */
+public interface DocumentStore {
+
+    /** Streams {@code content} into the store, hashing it while it is copied; the stream is not closed. */
+    StoredDocument put(InputStream content) throws IOException;
+
+    /** @return the content, or null when nothing is stored under {@code contentHash} */
+    InputStream open(String contentHash) throws IOException;
+
+    /**
+     * Opens the content from {@code offset}, for range requests. Backends may return more than {@code length}
+     * bytes; callers stop reading after {@code length}.
+     */
+    default InputStream open(String contentHash, long offset, long length) throws IOException {
+        InputStream stream = open(contentHash);
+        if (stream != null && offset > 0) {
+            stream.skipNBytes(offset);
+        }
+        return stream;
+    }
+
+    boolean exists(String contentHash) throws IOException;
+
+    /** The file holding the content when it is on local disk, so it can be sent with zero-copy transfer. */
+    default Optional<Path> localFile(String contentHash) {
+        return Optional.empty();
+    }
+}
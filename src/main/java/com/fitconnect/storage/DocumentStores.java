@@ -0,0 +1,59 @@
+package com.fitconnect.storage;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Produces the {@link DocumentStore} selected by {@code fitconnect.documents.store}: {@code local}
+ * (a directory, fine for a single node) or {@code s3} (a bucket every node can reach).
+ */
+@ApplicationScoped
+public class DocumentStores {
+
+    private static final Logger LOG = Logger.getLogger(DocumentStores.class);
+
+    @Inject
+    Config config;
+
+    @Inject
+    @ConfigProperty(name = "fitconnect.documents.store", defaultValue = "local")
+    String backend;
+
+    @Produces
+    @ApplicationScoped
+    DocumentStore documentStore() {
+        switch (backend) {
+            case "local":
+                String root = config.getOptionalValue("fitconnect.documents.local.root", String.class).orElse("file-uploads/documents");
+                LOG.infof("Storing documents under %s", root);
+                try {
+                    return new LocalDocumentStore(Paths.get(root));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not create document store directory " + root, e);
+                }
+            case "s3":
+                S3DocumentStore.Settings settings = new S3DocumentStore.Settings(
+                    URI.create(config.getValue("fitconnect.documents.s3.endpoint", String.class)),
+                    config.getOptionalValue("fitconnect.documents.s3.region", String.class).orElse("us-east-1"),
+                    config.getValue("fitconnect.documents.s3.bucket", String.class),
+                    config.getOptionalValue("fitconnect.documents.s3.prefix", String.class).orElse("documents/"),
+                    config.getOptionalValue("fitconnect.documents.s3.access-key", String.class).orElse(null),
+                    config.getOptionalValue("fitconnect.documents.s3.secret-key", String.class).orElse(null),
+                    config.getOptionalValue("fitconnect.documents.s3.timeout", Duration.class).orElse(Duration.ofSeconds(30)));
+                LOG.infof("Storing documents in bucket %s at %s", settings.bucket(), settings.endpoint());
+                return new S3DocumentStore(settings);
+            default:
+                throw new IllegalStateException("Unknown fitconnect.documents.store: " + backend + " (expected local or s3)");
+        }
+    }
+}
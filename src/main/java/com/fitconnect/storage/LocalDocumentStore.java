@@ -0,0 +1,77 @@
+package com.fitconnect.storage;
+
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Documents as files under {@code root}, at {@code ab/cd/<hash>}. Uploads are spooled into {@code root/tmp}
+ * and moved into place atomically, so a reader never sees a partial file and concurrent uploads of the
+ * same content just race to the same name.
+ */
+public class LocalDocumentStore implements DocumentStore {
+
+    private static final Logger LOG = Logger.getLogger(LocalDocumentStore.class);
+
+    private final Path root;
+    private final Path spoolDirectory;
+
+    public LocalDocumentStore(Path root) throws IOException {
+        this.root = root;
+        this.spoolDirectory = root.resolve("tmp");
+        Files.createDirectories(spoolDirectory);
+    }
+
+    @Override
+    public StoredDocument put(InputStream content) throws IOException {
+        try (SpooledUpload upload = SpooledUpload.spool(content, spoolDirectory)) {
+            Path target = pathFor(upload.contentHash);
+            if (Files.exists(target)) {
+                return new StoredDocument(upload.contentHash, upload.size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(upload.file, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                LOG.debugf("Atomic move not supported under %s; falling back to a plain move.", root);
+                Files.move(upload.file, target);
+            } catch (FileAlreadyExistsException e) {
+                return new StoredDocument(upload.contentHash, upload.size, true);
+            }
+            return new StoredDocument(upload.contentHash, upload.size, false);
+        }
+    }
+
+    @Override
+    public InputStream open(String contentHash) throws IOException {
+        try {
+            return Files.newInputStream(pathFor(contentHash));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean exists(String contentHash) {
+        return Files.exists(pathFor(contentHash));
+    }
+
+    @Override
+    public Optional<Path> localFile(String contentHash) {
+        Path path = pathFor(contentHash);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    Path pathFor(String contentHash) {
+        SpooledUpload.checkHash(contentHash);
+        return root.resolve(contentHash.substring(0, 2)).resolve(contentHash.substring(2, 4)).resolve(contentHash);
+    }
+}
@@ -0,0 +1,173 @@
+package com.fitconnect.storage;
+
+import org.jboss.logging.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+/**
+ * Documents as objects in an S3-compatible bucket (AWS S3, MinIO, Ceph...), keyed {@code <prefix>ab/<hash>}.
+ * Uses path-style URLs and SigV4 request signing over the JDK HTTP client, so no SDK is needed.
+ * An upload is spooled to a temporary file while it is hashed; the hash is both the object key and the
+ * signed payload hash, and the object is only sent when the bucket doesn't have it yet.
+ */
+public class S3DocumentStore implements DocumentStore {
+
+    private static final Logger LOG = Logger.getLogger(S3DocumentStore.class);
+
+    private static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    public record Settings(URI endpoint, String region, String bucket, String prefix,
+                           String accessKey, String secretKey, Duration timeout) {
+    }
+
+    private final Settings settings;
+    private final HttpClient client;
+
+    public S3DocumentStore(Settings settings) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder().connectTimeout(settings.timeout()).build();
+    }
+
+    @Override
+    public StoredDocument put(InputStream content) throws IOException {
+        try (SpooledUpload upload = SpooledUpload.spool(content, null)) {
+            if (exists(upload.contentHash)) {
+                return new StoredDocument(upload.contentHash, upload.size, true);
+            }
+            HttpRequest request = signed("PUT", upload.contentHash, upload.contentHash)
+                .header("Content-Type", "application/octet-stream")
+                .PUT(HttpRequest.BodyPublishers.ofFile(upload.file))
+                .build();
+            HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("S3 PUT " + key(upload.contentHash) + " failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            LOG.debugf("Stored %d bytes as %s in bucket %s.", upload.size, key(upload.contentHash), settings.bucket());
+            return new StoredDocument(upload.contentHash, upload.size, false);
+        }
+    }
+
+    @Override
+    public InputStream open(String contentHash) throws IOException {
+        return get(signed("GET", contentHash, EMPTY_PAYLOAD_HASH).GET().build(), contentHash);
+    }
+
+    // Only the requested bytes cross the network; Range isn't signed, which S3 allows.
+    @Override
+    public InputStream open(String contentHash, long offset, long length) throws IOException {
+        return get(signed("GET", contentHash, EMPTY_PAYLOAD_HASH)
+            .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+            .GET()
+            .build(), contentHash);
+    }
+
+    private InputStream get(HttpRequest request, String contentHash) throws IOException {
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 404) {
+            response.body().close();
+            return null;
+        }
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            throw new IOException("S3 GET " + key(contentHash) + " failed with HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @Override
+    public boolean exists(String contentHash) throws IOException {
+        HttpRequest request = signed("HEAD", contentHash, EMPTY_PAYLOAD_HASH)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build();
+        int status = send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 404) {
+            return false;
+        }
+        if (status / 100 != 2) {
+            throw new IOException("S3 HEAD " + key(contentHash) + " failed with HTTP " + status);
+        }
+        return true;
+    }
+
+    String key(String contentHash) {
+        SpooledUpload.checkHash(contentHash);
+        return settings.prefix() + contentHash.substring(0, 2) + "/" + contentHash;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted talking to " + settings.endpoint());
+        }
+    }
+
+    // AWS Signature Version 4 with the payload hash in x-amz-content-sha256.
+    private HttpRequest.Builder signed(String method, String contentHash, String payloadHash) {
+        String path = "/" + settings.bucket() + "/" + key(contentHash);
+        URI uri = settings.endpoint().resolve(path);
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String amzDate = AMZ_DATE.format(now);
+        String dateStamp = DATE_STAMP.format(now);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(settings.timeout())
+            .header("x-amz-content-sha256", payloadHash)
+            .header("x-amz-date", amzDate);
+        if (settings.accessKey() == null || settings.accessKey().isEmpty()) {
+            return builder; // Anonymous access, e.g. a local stand-in without credentials
+        }
+
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n"
+            + path + "\n"
+            + "\n"
+            + "host:" + host + "\n"
+            + "x-amz-content-sha256:" + payloadHash + "\n"
+            + "x-amz-date:" + amzDate + "\n"
+            + "\n"
+            + signedHeaders + "\n"
+            + payloadHash;
+        String scope = dateStamp + "/" + settings.region() + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+            + HexFormat.of().formatHex(SpooledUpload.sha256().digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] signingKey = hmac(("AWS4" + settings.secretKey()).getBytes(StandardCharsets.UTF_8), dateStamp);
+        signingKey = hmac(signingKey, settings.region());
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return builder.header("Authorization", "AWS4-HMAC-SHA256 Credential=" + settings.accessKey() + "/" + scope
+            + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fitconnect.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Upload copied to a temporary file in fixed-size chunks, hashed on the way, so its key is known before it is stored.
+final class SpooledUpload implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    final Path file;
+    final String contentHash;
+    final long size;
+
+    private SpooledUpload(Path file, String contentHash, long size) {
+        this.file = file;
+        this.contentHash = contentHash;
+        this.size = size;
+    }
+
+    static SpooledUpload spool(InputStream content, Path directory) throws IOException {
+        Path file = directory != null ? Files.createTempFile(directory, "upload-", ".part") : Files.createTempFile("upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(file)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            return new SpooledUpload(file, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static void checkHash(String contentHash) {
+        if (contentHash == null || !contentHash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Not a SHA-256 content hash: " + contentHash);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,5 @@
+package com.fitconnect.storage;
+
+/** @param deduplicated true when the content was already stored and this upload added nothing */
+public record StoredDocument(String contentHash, long size, boolean deduplicated) {
+}
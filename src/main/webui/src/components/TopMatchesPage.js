@@ -27,11 +27,28 @@ const TopMatchesPage = () => {
       return;
     }
 
+    let cancelled = false;
+
+    // Matching can take a while (LLM round trip), so start a background job and poll it.
+    // A finished job is reused by the backend, so reloading this page doesn't re-run matching.
+    const waitForMatchJob = async () => {
+      let job = await apiClient(`/service-requests/${serviceRequestId}/match-jobs`, 'POST');
+      while (!cancelled && (job.status === 'PENDING' || job.status === 'RUNNING')) {
+        await new Promise(resolve => setTimeout(resolve, 1500));
+        job = await apiClient(`/match-jobs/${job.jobId}`);
+      }
+      if (job.status === 'FAILED') {
+        throw new Error(job.errorMessage || 'Matching failed.');
+      }
+      return job.result || {};
+    };
+
     const fetchMatches = async () => {
       setMessage(''); // Clear previous messages
       setPageMessage('');
       try {
-        const data = await apiClient(`/service-requests/${serviceRequestId}/matches`);
+        const data = await waitForMatchJob();
+        if (cancelled) return;
         setMatches(data.matchedProfessionals || []);
         setRankingCriteria(data.rankingCriteria || "Ranking criteria not provided.");
         if (!data.matchedProfessionals || data.matchedProfessionals.length === 0) {
@@ -44,6 +61,7 @@ const TopMatchesPage = () => {
       }
     };
     fetchMatches();
+    return () => { cancelled = true; };
   }, [navigate, location.search]);
 
   const handleSelectProfessional = async (professionalId) => {
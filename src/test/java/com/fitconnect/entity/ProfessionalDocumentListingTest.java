@@ -0,0 +1,83 @@
+package com.fitconnect.entity;
+
+import com.fitconnect.dto.ProfessionalFullProfileDTO;
+import com.fitconnect.service.ProfessionalDocumentService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Blob;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ProfessionalDocumentListingTest {
+
+    private static final int LEGACY_CONTENT_SIZE = 2 * 1024 * 1024;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    ProfessionalDocumentService documentService;
+
+    @Test
+    public void testDocumentEntityHasNoBinaryAttributes() {
+        for (Attribute<? super ProfessionalDocument, ?> attribute : entityManagerFactory.getMetamodel().entity(ProfessionalDocument.class).getAttributes()) {
+            Class<?> type = attribute.getJavaType();
+            assertFalse(type == byte[].class || Blob.class.isAssignableFrom(type),
+                "ProfessionalDocument." + attribute.getName() + " holds binary data");
+        }
+    }
+
+    @Test
+    public void testListingDocumentsLoadsNoBinaryData() throws IOException {
+        byte[] legacyBytes = new byte[LEGACY_CONTENT_SIZE];
+        Arrays.fill(legacyBytes, (byte) 'x');
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            Professional pro = new Professional();
+            pro.setName("Legacy Documents");
+            pro.setEmail("legacy-" + UUID.randomUUID() + "@example.com");
+            pro.setPassword("irrelevant");
+            pro.persist();
+
+            ProfessionalDocument doc = new ProfessionalDocument();
+            doc.setProfessional(pro);
+            doc.setFileName("old-certificate.pdf");
+            doc.setFileType("application/pdf");
+            doc.setFileSize((long) legacyBytes.length);
+            doc.persist();
+
+            ProfessionalDocumentContent content = new ProfessionalDocumentContent();
+            content.document = doc;
+            content.content = BlobProxy.generateProxy(legacyBytes);
+            content.persist();
+            return new Long[] {pro.id, doc.getId()};
+        });
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        ProfessionalFullProfileDTO dto = QuarkusTransaction.requiringNew().call(
+            () -> new ProfessionalFullProfileDTO(Professional.<Professional>findById(ids[0])));
+
+        assertEquals(1, dto.documents.size());
+        assertEquals("old-certificate.pdf", dto.documents.get(0).fileName);
+        assertEquals(0, statistics.getEntityStatistics(ProfessionalDocumentContent.class.getName()).getLoadCount(),
+            "Listing documents must not load their content");
+
+        // The content is still there, streamed through the Blob on demand.
+        long streamed = documentService.readLegacyContent(ids[1], stream -> stream.transferTo(OutputStream.nullOutputStream()));
+        assertEquals(LEGACY_CONTENT_SIZE, streamed);
+    }
+}
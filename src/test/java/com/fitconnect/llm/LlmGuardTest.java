@@ -0,0 +1,106 @@
+package com.fitconnect.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LlmGuardTest {
+
+    // Stands in for the model provider: answers after a delay, or with a 429 while throttling.
+    static class StubModel {
+        volatile Duration latency = Duration.ZERO;
+        volatile boolean throttling;
+
+        String complete(String prompt) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (throttling) {
+                throw new RuntimeException("status code: 429; Rate limit reached for requests");
+            }
+            return "answer to " + prompt;
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StubModel model = new StubModel();
+
+    private LlmGuard guard(int maxConcurrent, int queueSize, double permitsPerSecond, int burst) {
+        return new LlmGuard("test", new LlmGuard.Settings(
+            maxConcurrent, queueSize, Duration.ofMillis(50),
+            permitsPerSecond, burst, Duration.ofMillis(10),
+            10, 4, 0.5, Duration.ofMillis(200)), registry);
+    }
+
+    @Test
+    public void testBulkheadRejectsCallsBeyondSlotsAndQueue() throws Exception {
+        LlmGuard guard = guard(2, 1, 1000, 100);
+        model.latency = Duration.ofMillis(300);
+
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> guard.call(() -> model.complete("hi"))));
+        }
+        int completed = 0;
+        int rejected = 0;
+        for (Future<String> result : results) {
+            try {
+                result.get();
+                completed++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(LlmCallRejectedException.class, e.getCause());
+                rejected++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(2, completed);
+        assertEquals(4, rejected);
+    }
+
+    @Test
+    public void testRateLimiterRejectsBurstBeyondBucket() {
+        LlmGuard guard = guard(10, 10, 1, 2);
+
+        guard.call(() -> model.complete("1"));
+        guard.call(() -> model.complete("2"));
+        assertThrows(LlmCallRejectedException.class, () -> guard.call(() -> model.complete("3")));
+        assertEquals(1.0, registry.get("fitconnect.llm.guard.rejected").tag("reason", "rate_limited").counter().count());
+    }
+
+    @Test
+    public void testCircuitOpensOnThrottlingAndRecoversAfterTrialCall() throws Exception {
+        LlmGuard guard = guard(10, 10, 1000, 100);
+        model.throttling = true;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> guard.call(() -> model.complete("hi")));
+        }
+        assertEquals(LlmGuard.State.OPEN, guard.state());
+        assertEquals(4.0, registry.get("fitconnect.llm.guard.calls").tag("outcome", "throttled").counter().count());
+
+        // While open, nothing reaches the model and callers fail immediately.
+        model.latency = Duration.ofSeconds(5);
+        long start = System.nanoTime();
+        assertThrows(LlmCallRejectedException.class, () -> guard.call(() -> model.complete("hi")));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+
+        model.latency = Duration.ZERO;
+        model.throttling = false;
+        Thread.sleep(250);
+        assertEquals(LlmGuard.State.HALF_OPEN, guard.state());
+        assertEquals("answer to hi", guard.call(() -> model.complete("hi")));
+        assertEquals(LlmGuard.State.CLOSED, guard.state());
+    }
+}
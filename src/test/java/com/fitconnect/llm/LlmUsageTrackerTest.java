@@ -0,0 +1,74 @@
+package com.fitconnect.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LlmUsageTrackerTest {
+
+    private LlmUsageTracker tracker;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracker = new LlmUsageTracker();
+        tracker.registry = registry;
+        tracker.dailyTokenBudget = 0;
+        tracker.perMinuteTokenBudget = 100;
+        tracker.init();
+    }
+
+    @Test
+    public void testCallOverBudgetFailsWithoutReachingTheModel() {
+        String prompt = "x".repeat(300); // ~75 tokens
+        assertEquals("ok", tracker.track("test", prompt, () -> "ok"));
+
+        assertThrows(LlmBudgetExceededException.class,
+            () -> tracker.track("test", prompt, () -> fail("model must not be called")));
+        assertEquals(1.0, registry.get("fitconnect.llm.budget.rejected").tag("window", "minute").counter().count());
+    }
+
+    @Test
+    public void testExhaustedBudgetDoesNotReachTheGuard() {
+        // Opens after 2 failed calls out of 2
+        LlmGuard guard = new LlmGuard("test", new LlmGuard.Settings(1, 0, Duration.ZERO, 1000, 1000, Duration.ZERO,
+            2, 2, 0.5, Duration.ofMinutes(1)), registry);
+        String prompt = "x".repeat(300);
+        tracker.track("test", prompt, () -> guard.call(() -> "ok"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(LlmBudgetExceededException.class,
+                () -> tracker.track("test", prompt, () -> guard.call(() -> fail("model must not be called"))));
+        }
+        assertEquals(LlmGuard.State.CLOSED, guard.state());
+        assertEquals(1.0, registry.get("fitconnect.llm.guard.calls").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    public void testCallRefusedByTheGuardGetsItsReservationBack() {
+        LlmGuard guard = new LlmGuard("test", new LlmGuard.Settings(1, 0, Duration.ZERO, 1000, 0, Duration.ZERO,
+            2, 2, 0.5, Duration.ofMinutes(1)), registry);
+
+        assertThrows(LlmCallRejectedException.class,
+            () -> tracker.track("test", "x".repeat(300), () -> guard.call(() -> fail("model must not be called"))));
+        assertEquals(0.0, registry.get("fitconnect.llm.budget.used").tag("window", "minute").gauge().value());
+        assertEquals(1, registry.get("fitconnect.llm.call.duration").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    public void testReportedUsageReplacesTheEstimate() {
+        tracker.track("test", "x".repeat(300), () -> {
+            tracker.recordUsage(10, 5);
+            return "ok";
+        });
+
+        assertEquals(15.0, registry.get("fitconnect.llm.budget.used").tag("window", "minute").gauge().value());
+        assertEquals(10.0, registry.get("fitconnect.llm.tokens").tag("type", "prompt").counter().count());
+        assertEquals(1, registry.get("fitconnect.llm.call.duration").tag("method", "test").timer().count());
+    }
+}
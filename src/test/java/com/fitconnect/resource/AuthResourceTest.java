@@ -5,9 +5,11 @@ import com.fitconnect.dto.LoginRequest;
 import com.fitconnect.dto.RegisterRequest;
 import com.fitconnect.entity.Professional;
 import com.fitconnect.entity.ProfessionalDocument;
+import com.fitconnect.entity.ScreeningTask;
 import com.fitconnect.entity.User;
 import com.fitconnect.entity.UserRole;
 import com.fitconnect.service.AuthService;
+import com.fitconnect.storage.DocumentStore;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -21,6 +23,7 @@ import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -47,8 +50,20 @@ public class AuthResourceTest {
     @Inject
     ObjectMapper objectMapper; // For deserializing response
 
+    @Inject
+    DocumentStore documentStore;
+
     private List<Path> tempFiles = new ArrayList<>();
 
+    // Uploads are kept in the DocumentStore under their content hash.
+    byte[] storedContent(ProfessionalDocument document) throws IOException {
+        assertNotNull(document.getContentHash());
+        try (InputStream stream = documentStore.open(document.getContentHash())) {
+            assertNotNull(stream);
+            return stream.readAllBytes();
+        }
+    }
+
     Path createTempFile(String prefix, String suffix, String content) throws IOException {
         Path tempFile = Files.createTempFile(prefix, suffix);
         Files.writeString(tempFile, content);
@@ -151,16 +166,14 @@ public class AuthResourceTest {
         assertNotNull(registeredProf.getDocuments());
         assertEquals(2, registeredProf.getDocuments().size());
 
-        // Check documents from response (fileContent should be null due to @JsonIgnore)
+        // Check documents from response
         ProfessionalDocument responseDoc1 = registeredProf.getDocuments().stream().filter(d -> d.getFileName().equals(doc1File.getName())).findFirst().orElse(null);
         assertNotNull(responseDoc1);
         assertEquals("application/pdf", responseDoc1.getFileType());
-        assertNull(responseDoc1.getFileContent()); // @JsonIgnore
 
         ProfessionalDocument responseDoc2 = registeredProf.getDocuments().stream().filter(d -> d.getFileName().equals(doc2File.getName())).findFirst().orElse(null);
         assertNotNull(responseDoc2);
         assertEquals("image/png", responseDoc2.getFileType());
-        assertNull(responseDoc2.getFileContent()); // @JsonIgnore
 
         // Assert Database State
         Professional profFromDb = Professional.find("email", uniqueEmail).firstResult();
@@ -178,12 +191,15 @@ public class AuthResourceTest {
         ProfessionalDocument dbDoc1 = docsFromDb.stream().filter(d -> d.getFileName().equals(doc1File.getName())).findFirst().orElse(null);
         assertNotNull(dbDoc1);
         assertEquals("application/pdf", dbDoc1.getFileType());
-        assertArrayEquals(doc1Content, dbDoc1.getFileContent());
+        assertArrayEquals(doc1Content, storedContent(dbDoc1));
 
         ProfessionalDocument dbDoc2 = docsFromDb.stream().filter(d -> d.getFileName().equals(doc2File.getName())).findFirst().orElse(null);
         assertNotNull(dbDoc2);
         assertEquals("image/png", dbDoc2.getFileType());
-        assertArrayEquals(doc2Content, dbDoc2.getFileContent());
+        assertArrayEquals(doc2Content, storedContent(dbDoc2));
+
+        // Registration queues the new profile for screening.
+        assertEquals(1, ScreeningTask.count("professionalId", profFromDb.id));
     }
 
     // Order 3: Professional Registration Email Exists Test
@@ -0,0 +1,204 @@
+package com.fitconnect.resource;
+
+import com.fitconnect.dto.LLMStructuredMatchResponse;
+import com.fitconnect.entity.Client;
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.ServiceRequest;
+import com.fitconnect.llm.ProfessionalMatcherAiService;
+import com.fitconnect.service.ProfessionalSearchIndex;
+import com.fitconnect.service.ProfessionalVectorIndex;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.jwt.build.Jwt;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Throughput and p99 of the match endpoint with a simulated multi-second-class LLM call, against the previous
+ * endpoint where the call ran on the HTTP worker pool ({@link WorkerThreadMatchResource}), both over HTTP.
+ * The worker pool is shrunk to {@link #WORKER_THREADS} so the difference shows with a modest number of requests.
+ * <p>
+ * The matcher guard is opened to {@link #CONCURRENT_REQUESTS} calls at once. With the shipped limits (4 running,
+ * 16 queued, 2 permits/s) at most 20 calls are admitted and the rest fall back to local ranking within
+ * milliseconds, so the benchmark would measure the guard rather than the thread model. Sustaining this many
+ * in-flight LLM rankings needs the guard raised to the same level in production.
+ */
+@QuarkusTest
+@TestProfile(BlockingEndpointBenchmarkTest.SmallWorkerPoolProfile.class)
+public class BlockingEndpointBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(BlockingEndpointBenchmarkTest.class);
+
+    private static final int WORKER_THREADS = 8;
+    private static final int CONCURRENT_REQUESTS = 96;
+    private static final long LLM_LATENCY_MS = 500;
+
+    public static class SmallWorkerPoolProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                Map.entry("quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS)),
+                Map.entry("quarkus.langchain4j.openai.api-key", "test-key"),
+                // Every request's LLM call admitted at once, with no rate-limit wait; see the class comment.
+                Map.entry("fitconnect.llm.guard.matcher.max-concurrent", String.valueOf(CONCURRENT_REQUESTS)),
+                Map.entry("fitconnect.llm.guard.matcher.queue-size", String.valueOf(CONCURRENT_REQUESTS)),
+                Map.entry("fitconnect.llm.guard.matcher.permits-per-second", String.valueOf(CONCURRENT_REQUESTS)),
+                Map.entry("fitconnect.llm.guard.matcher.burst", String.valueOf(2 * CONCURRENT_REQUESTS)),
+                Map.entry("fitconnect.match-precompute.enabled", "false"),
+                Map.entry("fitconnect.screening-queue.enabled", "false"),
+                Map.entry("fitconnect.rescreen.enabled", "false"));
+        }
+    }
+
+    private record Result(double requestsPerSecond, long p99Ms) {
+    }
+
+    @TestHTTPResource("/api/service-requests")
+    URI serviceRequests;
+
+    @TestHTTPResource("/api/test/worker-thread-service-requests")
+    URI workerThreadServiceRequests;
+
+    @Inject
+    ProfessionalSearchIndex searchIndex;
+
+    @Inject
+    ProfessionalVectorIndex vectorIndex;
+
+    @Inject
+    @ConfigProperty(name = "mp.jwt.verify.issuer")
+    String issuer;
+
+    @InjectMock
+    ProfessionalMatcherAiService matcherAiService;
+
+    @Test
+    public void testMatchEndpointAgainstWorkerThreadModel() throws Exception {
+        LLMStructuredMatchResponse ranking = new LLMStructuredMatchResponse();
+        ranking.setRankingRationale("Simulated ranking.");
+        ranking.setRankedProfessionals(new ArrayList<>());
+        Mockito.when(matcherAiService.findTopMatches(any(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(LLM_LATENCY_MS);
+            return ranking;
+        });
+        createVerifiedProfessionals();
+        Long clientId = createClient();
+
+        Result workerModel = runOverHttp(workerThreadServiceRequests, clientId, createServiceRequests(clientId));
+        Result offloaded = runOverHttp(serviceRequests, clientId, createServiceRequests(clientId));
+        LOG.infof("Match endpoint, %d concurrent requests, %d ms LLM latency, %d worker threads: "
+                + "worker-thread model %.1f req/s, p99 %d ms; offloaded %.1f req/s, p99 %d ms",
+            CONCURRENT_REQUESTS, LLM_LATENCY_MS, WORKER_THREADS,
+            workerModel.requestsPerSecond(), workerModel.p99Ms(), offloaded.requestsPerSecond(), offloaded.p99Ms());
+
+        // The worker model serves WORKER_THREADS requests per latency; offloaded, all of them run at once.
+        assertTrue(offloaded.requestsPerSecond() > 3 * workerModel.requestsPerSecond(),
+            "Offloading did not raise throughput: " + offloaded + " vs " + workerModel);
+        assertTrue(offloaded.p99Ms() < workerModel.p99Ms() / 2,
+            "Offloading did not cut p99 latency: " + offloaded + " vs " + workerModel);
+    }
+
+    private Result runOverHttp(URI endpoint, Long clientId, List<Long> serviceRequestIds) throws Exception {
+        String token = Jwt.issuer(issuer)
+            .subject(clientId.toString())
+            .groups(Set.of("CLIENT"))
+            .expiresIn(Duration.ofMinutes(10))
+            .sign();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        long start = System.nanoTime();
+        List<CompletableFuture<Long>> latencies = new ArrayList<>();
+        for (Long id : serviceRequestIds) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint + "/" + id + "/matches"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(120))
+                .GET()
+                .build();
+            latencies.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+                assertEquals(200, response.statusCode(), response.body());
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }));
+        }
+        List<Long> results = new ArrayList<>();
+        for (CompletableFuture<Long> latency : latencies) {
+            results.add(latency.get(120, TimeUnit.SECONDS));
+        }
+        return result(results, System.nanoTime() - start);
+    }
+
+    private static Result result(List<Long> latenciesMs, long elapsedNanos) {
+        Collections.sort(latenciesMs);
+        long p99 = latenciesMs.get((int) Math.ceil(0.99 * latenciesMs.size()) - 1);
+        return new Result(latenciesMs.size() / (elapsedNanos / 1_000_000_000.0), p99);
+    }
+
+    private void createVerifiedProfessionals() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 5; i++) {
+                Professional pro = new Professional();
+                pro.setName("Coach " + i);
+                pro.setEmail("benchmark-" + UUID.randomUUID() + "@example.com");
+                pro.setPassword("irrelevant");
+                pro.profession = "Strength Coach";
+                pro.summarizedSkills = "Strength training and kettlebell programming.";
+                pro.profileStatus = ProfileStatus.VERIFIED;
+                pro.persist();
+            }
+        });
+        searchIndex.rebuild();
+        vectorIndex.rebuild();
+    }
+
+    private Long createClient() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Client client = new Client();
+            client.setName("Benchmark Client");
+            client.setEmail("benchmark-client-" + UUID.randomUUID() + "@example.com");
+            client.setPassword("irrelevant");
+            client.persist();
+            return client.id;
+        });
+    }
+
+    private List<Long> createServiceRequests(Long clientId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Client client = Client.findById(clientId);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                ServiceRequest request = new ServiceRequest();
+                request.setClient(client);
+                request.setCategory("Strength training");
+                // Unique text so the match result cache can't answer the request.
+                request.setServiceDescription("Kettlebell strength coaching " + UUID.randomUUID());
+                request.persist();
+                ids.add(request.id);
+            }
+            return ids;
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.fitconnect.resource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteRangeTest {
+
+    @Test
+    public void testParsesSingleRanges() {
+        assertEquals(new ByteRange(0, 100), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(new ByteRange(900, 100), ByteRange.parse("bytes=900-", 1000));
+        assertEquals(new ByteRange(950, 50), ByteRange.parse("bytes=-50", 1000));
+        // Ends past the content are clamped.
+        assertEquals(new ByteRange(500, 500), ByteRange.parse("bytes=500-5000", 1000));
+        assertEquals(new ByteRange(0, 1000), ByteRange.parse("bytes=-5000", 1000));
+        assertEquals("bytes 0-99/1000", new ByteRange(0, 100).contentRange(1000));
+    }
+
+    @Test
+    public void testUnsatisfiableAndIgnoredRanges() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-9", 1000), "Multiple ranges are answered with the full content");
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=abc-", 1000));
+        assertNull(ByteRange.parse("bytes=10-5", 1000));
+    }
+}
@@ -0,0 +1,72 @@
+package com.fitconnect.resource;
+
+import com.fitconnect.dto.MatchResponseDTO;
+import com.fitconnect.entity.ServiceRequest;
+import com.fitconnect.service.MatchPrecomputeService;
+import com.fitconnect.service.MatchingService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+
+/**
+ * The match endpoint as it was before it was offloaded: a plain blocking method, so matching and the LLM
+ * call run on the HTTP worker thread. Only here as the baseline for {@link BlockingEndpointBenchmarkTest}.
+ */
+@Path("/api/test/worker-thread-service-requests")
+@Produces(MediaType.APPLICATION_JSON)
+public class WorkerThreadMatchResource {
+
+    private static final Logger LOG = Logger.getLogger(WorkerThreadMatchResource.class);
+
+    @Inject
+    MatchingService matchingService;
+
+    @Inject
+    MatchPrecomputeService matchPrecomputeService;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @GET
+    @Path("/{id}/matches")
+    @RolesAllowed({"CLIENT", "ADMIN"})
+    public Response getMatchesForServiceRequest(@PathParam("id") Long serviceRequestId, @Context SecurityContext ctx) {
+        Long currentUserId;
+        try {
+            currentUserId = Long.parseLong(jwt.getSubject());
+        } catch (NumberFormatException e) {
+            return Response.status(Response.Status.UNAUTHORIZED).entity("Invalid user identifier.").build();
+        }
+
+        ServiceRequest sr = ServiceRequest.findById(serviceRequestId);
+        if (sr == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Service request not found.").build();
+        }
+        if (!ctx.isUserInRole("ADMIN") && (sr.getClient() == null || !sr.getClient().id.equals(currentUserId))) {
+            return Response.status(Response.Status.FORBIDDEN).entity("You are not authorized to view matches for this service request.").build();
+        }
+
+        try {
+            MatchResponseDTO matches = matchPrecomputeService.storedResult(serviceRequestId)
+                .orElseGet(() -> matchingService.findMatchesForServiceRequest(serviceRequestId));
+            return Response.ok(matches).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            LOG.errorf(e, "Unexpected error finding matches for service request ID %d", serviceRequestId);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("An unexpected error occurred while finding matches.")
+                .build();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.fitconnect.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.ParseException;
+import io.smallrye.jwt.build.Jwt;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingJWTParserTest {
+
+    static final String ISSUER = "https://fitconnect.com/issuer";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    static KeyPair rsaKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    static CachingJWTParser parser(KeyPair keys, SimpleMeterRegistry registry, boolean enabled) {
+        CachingJWTParser parser = new CachingJWTParser();
+        parser.authContextInfo = new JWTAuthContextInfo(keys.getPublic(), ISSUER);
+        parser.registry = registry;
+        parser.enabled = enabled;
+        parser.maximumSize = 1000;
+        parser.init();
+        return parser;
+    }
+
+    static String token(KeyPair keys, Duration lifetime) {
+        return Jwt.issuer(ISSUER)
+            .subject("42")
+            .groups("CLIENT")
+            .expiresIn(lifetime)
+            .sign(keys.getPrivate());
+    }
+
+    @Test
+    public void testVerifiedTokenIsServedFromCache() throws Exception {
+        KeyPair keys = rsaKeyPair();
+        CachingJWTParser parser = parser(keys, registry, true);
+        String token = token(keys, Duration.ofHours(1));
+
+        JsonWebToken first = parser.parse(token);
+        JsonWebToken second = parser.parse(token);
+
+        assertEquals("42", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, parser.cache().stats().hitCount());
+        assertEquals(0.5, registry.get("fitconnect.jwt.cache.hit_rate").gauge().value());
+    }
+
+    @Test
+    public void testTamperedTokenIsVerifiedAndRejected() throws Exception {
+        KeyPair keys = rsaKeyPair();
+        CachingJWTParser parser = parser(keys, registry, true);
+        String token = token(keys, Duration.ofHours(1));
+        parser.parse(token);
+
+        // First character of the signature: the trailing one may only carry padding bits.
+        int signature = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, signature) + (token.charAt(signature) == 'A' ? 'B' : 'A') + token.substring(signature + 1);
+        assertThrows(ParseException.class, () -> parser.parse(tampered));
+
+        KeyPair otherKeys = rsaKeyPair();
+        assertThrows(ParseException.class, () -> parser.parse(token(otherKeys, Duration.ofHours(1))));
+    }
+
+    @Test
+    public void testTokenIsNotServedPastItsExpiry() throws Exception {
+        KeyPair keys = rsaKeyPair();
+        CachingJWTParser parser = parser(keys, registry, true);
+        String token = token(keys, Duration.ofSeconds(1));
+
+        JsonWebToken first = parser.parse(token);
+        Thread.sleep(1100);
+
+        // Verified again rather than taken from the cache; the verifier's clock-skew allowance decides the outcome.
+        try {
+            assertNotSame(first, parser.parse(token));
+        } catch (ParseException e) {
+            // Rejected outright, which is fine too
+        }
+        assertEquals(0, parser.cache().stats().hitCount());
+    }
+}
@@ -0,0 +1,83 @@
+package com.fitconnect.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.jwt.auth.principal.ParseException;
+import io.smallrye.jwt.build.Jwt;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token verification with and without {@link CachingJWTParser}'s cache, for a set of distinct tokens
+ * cycling like dashboard polls from that many signed-in users. Not run by the build; run it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.fitconnect.security.JwtVerificationBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    @Param({"100", "1000"})
+    int activeTokens;
+
+    private CachingJWTParser uncached;
+    private CachingJWTParser cached;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        KeyPair keys = CachingJWTParserTest.rsaKeyPair();
+        uncached = CachingJWTParserTest.parser(keys, new SimpleMeterRegistry(), false);
+        cached = CachingJWTParserTest.parser(keys, new SimpleMeterRegistry(), true);
+        tokens = new String[activeTokens];
+        for (int i = 0; i < activeTokens; i++) {
+            tokens[i] = Jwt.issuer(CachingJWTParserTest.ISSUER)
+                .subject(String.valueOf(i))
+                .groups("CLIENT")
+                .expiresIn(Duration.ofHours(1))
+                .sign(keys.getPrivate());
+        }
+    }
+
+    @Benchmark
+    public JsonWebToken verifyWithoutCache() throws ParseException {
+        return uncached.parse(nextToken());
+    }
+
+    @Benchmark
+    public JsonWebToken verifyWithCache() throws ParseException {
+        return cached.parse(nextToken());
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.LoginRequest;
+import com.fitconnect.dto.LoginResponse;
+import com.fitconnect.entity.Client;
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.User;
+import com.fitconnect.entity.UserRole;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class AuthServiceTest {
+
+    private static final String PASSWORD = "kettlebell-42";
+
+    @Inject
+    AuthService authService;
+
+    @Inject
+    PasswordHasher passwordHasher;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private String createProfessional(String passwordHash) {
+        String email = "login-pro-" + UUID.randomUUID() + "@example.com";
+        QuarkusTransaction.requiringNew().run(() -> {
+            Professional pro = new Professional();
+            pro.setName("Login Professional");
+            pro.setEmail(email);
+            pro.setPassword(passwordHash);
+            pro.setProfileStatus(ProfileStatus.VERIFIED);
+            pro.persist();
+        });
+        return email;
+    }
+
+    private Optional<LoginResponse> login(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return authService.login(request);
+    }
+
+    @Test
+    public void testLoginIsOneStatementForEveryRole() {
+        String professionalEmail = createProfessional(passwordHasher.hash(PASSWORD));
+        String clientEmail = "login-client-" + UUID.randomUUID() + "@example.com";
+        String clientHash = passwordHasher.hash(PASSWORD);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Client client = new Client();
+            client.setName("Login Client");
+            client.setEmail(clientEmail);
+            client.setPassword(clientHash);
+            client.persist();
+        });
+
+        statistics.clear();
+        LoginResponse professional = login(professionalEmail, PASSWORD).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount(), "Professional login must be a single query");
+        assertEquals(UserRole.PROFESSIONAL.name(), professional.getRole());
+        assertEquals(ProfileStatus.VERIFIED.name(), professional.getProfileStatus());
+
+        statistics.clear();
+        LoginResponse client = login(clientEmail, PASSWORD).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount(), "Client login must be a single query");
+        assertEquals(UserRole.CLIENT.name(), client.getRole());
+        assertEquals("N/A", client.getProfileStatus());
+
+        statistics.clear();
+        assertTrue(login(clientEmail, "wrong-password").isEmpty());
+        assertTrue(login("nobody-" + UUID.randomUUID() + "@example.com", PASSWORD).isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testOutdatedHashIsReplacedAtLogin() {
+        // Hashes used to be stored as Arrays.toString(char[]).
+        String current = passwordHasher.hash(PASSWORD);
+        String legacy = current.chars().mapToObj(c -> String.valueOf((char) c)).collect(Collectors.joining(", ", "[", "]"));
+        String email = createProfessional(legacy);
+
+        statistics.clear();
+        assertTrue(login(email, PASSWORD).isPresent());
+        assertEquals(2, statistics.getPrepareStatementCount(), "Lookup plus one password update");
+
+        String stored = QuarkusTransaction.requiringNew().call(() -> User.<User>find("email", email).firstResult().getPassword());
+        assertFalse(passwordHasher.needsRehash(stored));
+        statistics.clear();
+        assertTrue(login(email, PASSWORD).isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
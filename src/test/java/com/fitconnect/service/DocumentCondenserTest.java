@@ -0,0 +1,68 @@
+package com.fitconnect.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentCondenserTest {
+
+    private DocumentCondenser condenser;
+
+    @BeforeEach
+    void setUp() {
+        condenser = new DocumentCondenser();
+        condenser.registry = new SimpleMeterRegistry();
+        condenser.tokenBudget = 60;
+        condenser.chunkTokens = 30;
+    }
+
+    @Test
+    public void testBoilerplateAndRepeatedHeadersAreRemoved() {
+        String cv = String.join("\n",
+            "ACME Gym Staff Handbook", "Page 1 of 3", "",
+            "Certified personal trainer with strength and conditioning experience.", "",
+            "ACME Gym Staff Handbook", "Page 2 of 3", "https://example.com/terms", "",
+            "ACME Gym Staff Handbook", "Copyright 2024 ACME. All rights reserved.");
+
+        List<String> paragraphs = DocumentCondenser.clean(cv);
+
+        assertEquals(List.of("Certified personal trainer with strength and conditioning experience."), paragraphs);
+    }
+
+    @Test
+    public void testDuplicatesDroppedAndRelevantChunksKeptWithinBudget() {
+        String certificate = "Certificate: Level 3 Personal Trainer, strength and conditioning, nutrition coaching.";
+        String filler = "The parking garage is open on weekdays and the cafeteria serves lunch between noon and two. "
+            + "Visitors should sign in at the reception desk and wear their badge at all times while inside.";
+        // Room for the certificate but not for a filler sentence next to it.
+        condenser.tokenBudget = 40;
+        String condensed = condenser.condense(List.of(certificate + "\n\n" + filler, certificate));
+
+        assertTrue(condensed.contains("Personal Trainer"));
+        assertEquals(condensed.indexOf("Certificate:"), condensed.lastIndexOf("Certificate:"), "Duplicate paragraph kept");
+        assertFalse(condensed.contains("parking garage"), "Low-relevance chunk should not fit the budget");
+        assertTrue(TokenEstimator.count(condensed) <= 40);
+    }
+
+    @Test
+    public void testParagraphLargerThanBudgetIsSplitNotDropped() {
+        String sentence = "Certified strength and conditioning coach with years of personal training experience. ";
+        String cv = sentence.repeat(12);
+        assertTrue(TokenEstimator.count(cv) > 60);
+
+        String condensed = condenser.condense(List.of(cv));
+
+        assertTrue(condensed.contains("Certified strength and conditioning coach"));
+        assertTrue(TokenEstimator.count(condensed) <= 60);
+
+        // Without sentence breaks it is cut between words instead.
+        String unpunctuated = "kettlebell yoga pilates mobility nutrition coaching ".repeat(40);
+        String windows = condenser.condense(List.of(unpunctuated));
+        assertFalse(windows.isEmpty());
+        assertTrue(TokenEstimator.count(windows) <= 60);
+    }
+}
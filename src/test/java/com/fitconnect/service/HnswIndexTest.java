@@ -0,0 +1,90 @@
+package com.fitconnect.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    private static float[] randomUnitVector(Random random) {
+        float[] v = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            v[i] = (float) random.nextGaussian();
+            norm += v[i] * v[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            v[i] /= (float) Math.sqrt(norm);
+        }
+        return v;
+    }
+
+    @Test
+    public void testFindsExactVectorAndSkipsRemovedKeys() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomUnitVector(random);
+            index.add(i, vectors[i]);
+        }
+
+        List<HnswIndex.Neighbour> result = index.search(vectors[42], 5, 32);
+        assertEquals(42L, result.get(0).key());
+
+        assertTrue(index.remove(42));
+        assertEquals(499, index.size());
+        assertTrue(index.search(vectors[42], 5, 32).stream().noneMatch(n -> n.key() == 42L));
+
+        HnswIndex compacted = index.compact();
+        assertEquals(499, compacted.size());
+        assertEquals(0, compacted.tombstones());
+    }
+
+    @Test
+    public void testReAddingKeyReplacesItsVector() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        for (int i = 0; i < 50; i++) {
+            index.add(i, randomUnitVector(random));
+        }
+        float[] replacement = randomUnitVector(random);
+        index.add(3, replacement);
+
+        assertEquals(50, index.size());
+        assertEquals(3L, index.search(replacement, 1, 32).get(0).key());
+    }
+
+    @Test
+    public void testPersistenceRoundTrip() throws IOException {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        float[] probe = null;
+        for (int i = 0; i < 200; i++) {
+            float[] v = randomUnitVector(random);
+            index.add(i, v);
+            if (i == 120) {
+                probe = v;
+            }
+        }
+        index.remove(5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        HnswIndex restored = HnswIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index.size(), restored.size());
+        assertFalse(restored.contains(5));
+        assertEquals(index.search(probe, 10, 32), restored.search(probe, 10, 32));
+    }
+}
@@ -0,0 +1,254 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.LLMProfileAnalysis;
+import com.fitconnect.dto.LLMStructuredMatchResponse;
+import com.fitconnect.entity.Client;
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.ServiceRequest;
+import com.fitconnect.llm.ProfessionalMatcherAiService;
+import com.fitconnect.llm.ProfessionalProfileAnalyzer;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Load test for the read / LLM / write split: more concurrent matches and screenings than the pool has
+ * connections, with a simulated model latency. If a connection were held across the model call, requests would
+ * queue on the pool, the run would take a multiple of the latency and the pool would be busy throughout.
+ */
+@QuarkusTest
+@TestProfile(LlmConnectionOccupancyTest.SmallPoolProfile.class)
+public class LlmConnectionOccupancyTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final int CONCURRENT_CALLS = 8;
+    private static final long SHORT_LATENCY_MS = 200;
+    private static final long LONG_LATENCY_MS = 1000;
+
+    public static class SmallPoolProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                Map.entry("quarkus.langchain4j.openai.api-key", "test-key"),
+                Map.entry("quarkus.datasource.jdbc.max-size", String.valueOf(POOL_SIZE)),
+                Map.entry("quarkus.datasource.jdbc.acquisition-timeout", "30s"),
+                Map.entry("quarkus.datasource.metrics.enabled", "true"),
+                Map.entry("fitconnect.llm.guard.matcher.max-concurrent", "16"),
+                Map.entry("fitconnect.llm.guard.matcher.queue-size", "32"),
+                Map.entry("fitconnect.llm.guard.matcher.permits-per-second", "1000"),
+                Map.entry("fitconnect.llm.guard.matcher.burst", "1000"),
+                Map.entry("fitconnect.llm.guard.analyzer.max-concurrent", "16"),
+                Map.entry("fitconnect.llm.guard.analyzer.queue-size", "32"),
+                Map.entry("fitconnect.llm.guard.analyzer.permits-per-second", "1000"),
+                Map.entry("fitconnect.llm.guard.analyzer.burst", "1000"),
+                Map.entry("fitconnect.match-precompute.enabled", "false"),
+                Map.entry("fitconnect.screening-queue.enabled", "false"),
+                Map.entry("fitconnect.rescreen.enabled", "false"));
+        }
+    }
+
+    private record Occupancy(long wallMs, double busyConnectionMs, long maxActive) {
+        double meanActive() {
+            return busyConnectionMs / wallMs;
+        }
+    }
+
+    @Inject
+    MatchingService matchingService;
+
+    @Inject
+    ProfessionalScreeningService screeningService;
+
+    @Inject
+    ProfessionalSearchIndex searchIndex;
+
+    @Inject
+    ProfessionalVectorIndex vectorIndex;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @InjectMock
+    ProfessionalMatcherAiService matcherAiService;
+
+    @InjectMock
+    ProfessionalProfileAnalyzer profileAnalyzer;
+
+    private volatile long latencyMs;
+
+    @BeforeEach
+    void setUp() {
+        LLMStructuredMatchResponse ranking = new LLMStructuredMatchResponse();
+        ranking.setRankingRationale("Simulated ranking.");
+        ranking.setRankedProfessionals(new ArrayList<>());
+        Mockito.when(matcherAiService.findTopMatches(any(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(latencyMs);
+            return ranking;
+        });
+
+        LLMProfileAnalysis analysis = new LLMProfileAnalysis();
+        analysis.setSummary("Simulated summary.");
+        analysis.setSkills(List.of());
+        Mockito.when(profileAnalyzer.analyzeProfile(anyString(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(latencyMs);
+            return analysis;
+        });
+    }
+
+    @Test
+    public void testMatchingDoesNotHoldConnectionsDuringLlmCall() throws Exception {
+        createProfessionals(5, ProfileStatus.VERIFIED);
+        searchIndex.rebuild();
+        vectorIndex.rebuild();
+
+        Occupancy fast = measure(SHORT_LATENCY_MS, () -> matchingService.findMatchesForServiceRequest(createServiceRequest()), CONCURRENT_CALLS);
+        Occupancy slow = measure(LONG_LATENCY_MS, () -> matchingService.findMatchesForServiceRequest(createServiceRequest()), CONCURRENT_CALLS);
+
+        assertOccupancyIndependentOfLatency(fast, slow);
+    }
+
+    @Test
+    public void testScreeningDoesNotHoldConnectionsDuringLlmCall() throws Exception {
+        List<Long> fastIds = createProfessionals(CONCURRENT_CALLS, ProfileStatus.PENDING_VERIFICATION);
+        List<Long> slowIds = createProfessionals(CONCURRENT_CALLS, ProfileStatus.PENDING_VERIFICATION);
+
+        Occupancy fast = measure(SHORT_LATENCY_MS, screenEach(fastIds), CONCURRENT_CALLS);
+        Occupancy slow = measure(LONG_LATENCY_MS, screenEach(slowIds), CONCURRENT_CALLS);
+
+        assertOccupancyIndependentOfLatency(fast, slow);
+        assertEquals(ProfileStatus.VERIFIED, QuarkusTransaction.requiringNew().call(
+            () -> Professional.<Professional>findById(slowIds.get(0)).getProfileStatus()));
+    }
+
+    private void assertOccupancyIndependentOfLatency(Occupancy fast, Occupancy slow) {
+        // With connections held, 8 calls on 2 connections take 4 latencies and keep the pool saturated.
+        assertTrue(slow.wallMs() < 2 * LONG_LATENCY_MS,
+            "Calls queued on the connection pool: " + CONCURRENT_CALLS + " calls took " + slow.wallMs() + " ms");
+        assertTrue(slow.meanActive() < 0.5 * POOL_SIZE,
+            "Pool occupancy tracks LLM latency: " + slow.meanActive() + " connections busy on average, "
+                + slow.maxActive() + " at peak");
+        // Five times the latency must not mean (anywhere near) five times the connection time.
+        assertTrue(slow.busyConnectionMs() < 2 * fast.busyConnectionMs() + 250,
+            "Connection time grew with latency: " + fast.busyConnectionMs() + " ms -> " + slow.busyConnectionMs() + " ms");
+    }
+
+    // Runs the calls concurrently while sampling pool occupancy, and checks that an unrelated query
+    // gets a connection straight away in the middle of the LLM phase.
+    private Occupancy measure(long latency, Callable<?> call, int calls) throws Exception {
+        latencyMs = latency;
+        ExecutorService executor = Executors.newFixedThreadPool(calls + 1);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        LongAdder busyConnectionMicros = new LongAdder();
+        long[] maxActive = new long[1];
+        try {
+            Future<?> sampler = executor.submit(() -> {
+                long last = System.nanoTime();
+                while (sampling.get()) {
+                    long active = dataSource.getMetrics().activeCount();
+                    long now = System.nanoTime();
+                    busyConnectionMicros.add(active * (now - last) / 1_000);
+                    maxActive[0] = Math.max(maxActive[0], active);
+                    last = now;
+                    Thread.sleep(2);
+                }
+                return null;
+            });
+
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                futures.add(executor.submit(call));
+            }
+            Thread.sleep(latency / 2);
+            long queryStart = System.nanoTime();
+            QuarkusTransaction.requiringNew().call(Professional::count);
+            long queryMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart);
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            sampling.set(false);
+            sampler.get();
+            assertTrue(queryMs < latency / 2, "A query waited " + queryMs + " ms for a connection during the LLM phase");
+            return new Occupancy(wallMs, busyConnectionMicros.sum() / 1_000.0, maxActive[0]);
+        } finally {
+            sampling.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Void> screenEach(List<Long> ids) {
+        List<Long> queue = new ArrayList<>(ids);
+        return () -> {
+            Long id;
+            synchronized (queue) {
+                id = queue.remove(0);
+            }
+            screeningService.screenProfessionalProfile(id);
+            return null;
+        };
+    }
+
+    private List<Long> createProfessionals(int count, ProfileStatus status) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Professional pro = new Professional();
+                pro.setName("Coach " + i);
+                pro.setEmail("occupancy-" + UUID.randomUUID() + "@example.com");
+                pro.setPassword("irrelevant");
+                pro.profession = "Strength Coach";
+                pro.yearsOfExperience = 5 + i;
+                pro.summarizedSkills = "Strength training and kettlebell programming.";
+                pro.aboutYou = "I help clients build strength safely. " + UUID.randomUUID();
+                pro.profileStatus = status;
+                pro.persist();
+                ids.add(pro.id);
+            }
+            return ids;
+        });
+    }
+
+    private Long createServiceRequest() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Client client = new Client();
+            client.setName("Occupancy Client");
+            client.setEmail("occupancy-client-" + UUID.randomUUID() + "@example.com");
+            client.setPassword("irrelevant");
+            client.persist();
+
+            ServiceRequest request = new ServiceRequest();
+            request.setClient(client);
+            request.setCategory("Strength training");
+            // Unique text so the match result cache can't answer the request.
+            request.setServiceDescription("Kettlebell strength coaching " + UUID.randomUUID());
+            request.persist();
+            return request.id;
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchResponseDTO;
+import com.fitconnect.entity.Client;
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.ServiceRequest;
+import com.fitconnect.entity.Skill;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class MatchingServiceTest {
+
+    // ServiceRequest lookup + candidate projection + skill names, regardless of pool size.
+    private static final long MAX_MATCH_STATEMENTS = 3;
+
+    @Inject
+    MatchingService matchingService;
+
+    @Inject
+    ProfessionalSearchIndex searchIndex;
+
+    @Inject
+    ProfessionalVectorIndex vectorIndex;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private void createVerifiedProfessionals(int count) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < count; i++) {
+                Skill skill = new Skill();
+                skill.name = "Kettlebell Coaching " + UUID.randomUUID();
+                skill.persist();
+
+                Professional pro = new Professional();
+                pro.setName("Coach " + i);
+                pro.setEmail("coach-" + UUID.randomUUID() + "@example.com");
+                pro.setPassword("irrelevant");
+                pro.profession = "Strength Coach";
+                pro.yearsOfExperience = 5 + i;
+                pro.summarizedSkills = "Strength training and kettlebell programming.";
+                pro.aboutYou = "I help clients build strength safely.";
+                pro.profileStatus = ProfileStatus.VERIFIED;
+                pro.socialMediaLinks = Map.of("website", "https://coach" + i + ".example.com");
+                pro.skills = new ArrayList<>(List.of(skill));
+                pro.persist();
+            }
+        });
+        searchIndex.rebuild();
+        vectorIndex.rebuild();
+    }
+
+    private Long createServiceRequest() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Client client = new Client();
+            client.setName("Statement Count Client");
+            client.setEmail("client-" + UUID.randomUUID() + "@example.com");
+            client.setPassword("irrelevant");
+            client.persist();
+
+            ServiceRequest request = new ServiceRequest();
+            request.setClient(client);
+            request.setCategory("Strength training");
+            // Unique text so the match result cache can't answer the request.
+            request.setServiceDescription("Kettlebell strength coaching " + UUID.randomUUID());
+            request.persist();
+            return request.id;
+        });
+    }
+
+    private long countStatementsForMatching(Long serviceRequestId) {
+        statistics.clear();
+        MatchResponseDTO response = matchingService.findMatchesForServiceRequest(serviceRequestId);
+        long statements = statistics.getPrepareStatementCount();
+        assertFalse(response.getMatchedProfessionals().isEmpty());
+        response.getMatchedProfessionals().forEach(match -> assertFalse(match.getSkills().isEmpty()));
+        return statements;
+    }
+
+    @Test
+    public void testMatchingStatementCountDoesNotGrowWithCandidates() {
+        createVerifiedProfessionals(3);
+        long smallPool = countStatementsForMatching(createServiceRequest());
+
+        createVerifiedProfessionals(20);
+        long largePool = countStatementsForMatching(createServiceRequest());
+
+        assertTrue(smallPool <= MAX_MATCH_STATEMENTS, "Matching used " + smallPool + " statements");
+        assertEquals(smallPool, largePool, "Statement count must not depend on the number of candidates");
+    }
+}
@@ -0,0 +1,63 @@
+package com.fitconnect.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    private PasswordHasher hasher(int cost) {
+        PasswordHasher hasher = new PasswordHasher();
+        hasher.registry = registry;
+        hasher.cost = cost;
+        hasher.threads = 1;
+        hasher.queueSize = 4;
+        hasher.init();
+        return hasher;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    public void testHashVerifiesOnlyTheRightPassword() {
+        hasher = hasher(4);
+        String hash = hasher.hash("kettlebell-42");
+
+        assertTrue(hash.startsWith("$2a$04$"), hash);
+        assertTrue(hasher.verify("kettlebell-42", hash));
+        assertFalse(hasher.verify("kettlebell-43", hash));
+        assertFalse(hasher.verify("kettlebell-42", "not a hash"));
+        assertFalse(hasher.needsRehash(hash));
+        // One hash and two verifications; the malformed hash is rejected before it reaches the pool.
+        assertEquals(3, registry.get("fitconnect.password.compute").timers().stream().mapToLong(t -> t.count()).sum());
+        assertEquals(3, registry.get("fitconnect.password.queue").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    public void testCostChangeAndOldFormatNeedRehash() {
+        PasswordHasher cheap = hasher(4);
+        String cheapHash = cheap.hash("kettlebell-42");
+        cheap.shutdown();
+        hasher = hasher(5);
+
+        assertTrue(hasher.verify("kettlebell-42", cheapHash), "A hash at another cost still verifies");
+        assertTrue(hasher.needsRehash(cheapHash));
+
+        // Hashes used to be stored as Arrays.toString(char[]).
+        String legacyHash = cheapHash.chars().mapToObj(c -> String.valueOf((char) c)).collect(Collectors.joining(", ", "[", "]"));
+        assertTrue(hasher.verify("kettlebell-42", legacyHash));
+        assertTrue(hasher.needsRehash(legacyHash));
+    }
+}
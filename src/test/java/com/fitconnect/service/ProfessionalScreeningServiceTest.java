@@ -1,10 +1,13 @@
 package com.fitconnect.service;
 
+import com.fitconnect.dto.LLMProfileAnalysis;
+import com.fitconnect.dto.ProfessionalProfileUpdateDTO;
 import com.fitconnect.entity.Professional;
 import com.fitconnect.entity.ProfessionalDocument;
 import com.fitconnect.entity.ProfileStatus;
 import com.fitconnect.entity.Skill;
 import com.fitconnect.llm.ProfessionalProfileAnalyzer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy; // For mocking AiServices or other CDI beans
 import jakarta.inject.Inject; // Standard CDI inject
@@ -29,6 +32,12 @@ public class ProfessionalScreeningServiceTest {
     @Inject
     ProfessionalScreeningService screeningService;
 
+    @Inject
+    ProfessionalService professionalService;
+
+    @Inject
+    SkillDictionary skillDictionary;
+
     @InjectSpy // Mocks the LLM interface
     ProfessionalProfileAnalyzer mockProfileAnalyzer;
 
@@ -44,6 +53,7 @@ public class ProfessionalScreeningServiceTest {
         // Clean up existing test data to avoid conflicts if tests run multiple times
         Professional.deleteAll(); // Be careful with deleteAll in real apps; use specific cleanup
         Skill.deleteAll();
+        skillDictionary.clear();
 
         testProfessional = new Professional();
         testProfessional.setName("Dr. Fit");
@@ -80,9 +90,11 @@ public class ProfessionalScreeningServiceTest {
     public void testScreenProfessionalProfile_Success() {
         // Mock LLM responses
         String expectedSummary = "A highly experienced Fitness Guru with a PhD, specializing in training and wellness.";
-        String expectedSkillsList = "Kinesiology, Super Training, Wellness Coaching";
-        Mockito.when(mockProfileAnalyzer.summarizeExpertiseAndSkills(anyString(), anyString())).thenReturn(expectedSummary);
-        Mockito.when(mockProfileAnalyzer.extractSkillsList(anyString(), anyString())).thenReturn(expectedSkillsList);
+        LLMProfileAnalysis analysis = new LLMProfileAnalysis();
+        analysis.setSummary(expectedSummary);
+        // Duplicates and blanks from the model are dropped.
+        analysis.setSkills(Arrays.asList("Kinesiology", " Super Training ", "Wellness Coaching", "kinesiology", ""));
+        Mockito.when(mockProfileAnalyzer.analyzeProfile(anyString(), anyString())).thenReturn(analysis);
 
         // Execute the screening
         screeningService.screenProfessionalProfile(testProfessional.id);
@@ -102,6 +114,62 @@ public class ProfessionalScreeningServiceTest {
         assertNotNull(s);
     }
 
+    @Test
+    public void testScreenProfessionalProfile_RecoversFromDeletedSkill() {
+        LLMProfileAnalysis analysis = new LLMProfileAnalysis();
+        analysis.setSummary("Fitness Guru focused on kinesiology.");
+        analysis.setSkills(Arrays.asList("Kinesiology"));
+        Mockito.when(mockProfileAnalyzer.analyzeProfile(anyString(), anyString())).thenReturn(analysis);
+        screeningService.screenProfessionalProfile(testProfessional.id);
+
+        // Deleted behind the dictionary's back, which still holds the old id.
+        QuarkusTransaction.requiringNew().run(() -> {
+            Professional.<Professional>findById(testProfessional.id).skills.clear();
+            Professional.flush();
+            Skill.deleteAll();
+        });
+
+        screeningService.screenProfessionalProfile(testProfessional.id, true);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Professional screened = Professional.findById(testProfessional.id);
+            assertEquals(1, screened.skills.size());
+            assertEquals("Kinesiology", screened.skills.get(0).name);
+        });
+    }
+
+    @Test
+    public void testScreenProfessionalProfile_UnchangedProfileSkipsLlm() {
+        LLMProfileAnalysis analysis = new LLMProfileAnalysis();
+        analysis.setSummary("Fitness Guru focused on training and wellness.");
+        analysis.setSkills(Arrays.asList("Kinesiology"));
+        Mockito.when(mockProfileAnalyzer.analyzeProfile(anyString(), anyString())).thenReturn(analysis);
+
+        screeningService.screenProfessionalProfile(testProfessional.id);
+        String fingerprint = QuarkusTransaction.requiringNew().call(
+            () -> Professional.<Professional>findById(testProfessional.id).screeningFingerprint);
+        assertNotNull(fingerprint);
+
+        // Phone number is not part of the screening input.
+        ProfessionalProfileUpdateDTO phoneOnly = new ProfessionalProfileUpdateDTO();
+        phoneOnly.setPhoneNumber("+1 555 0100");
+        professionalService.updateProfessionalProfile(testProfessional.id, phoneOnly);
+        screeningService.screenProfessionalProfile(testProfessional.id);
+        Mockito.verify(mockProfileAnalyzer, Mockito.times(1)).analyzeProfile(anyString(), anyString());
+
+        ProfessionalProfileUpdateDTO aboutYou = new ProfessionalProfileUpdateDTO();
+        aboutYou.setAboutYou("Now also coaching marathon runners.");
+        professionalService.updateProfessionalProfile(testProfessional.id, aboutYou);
+        screeningService.screenProfessionalProfile(testProfessional.id);
+        Mockito.verify(mockProfileAnalyzer, Mockito.times(2)).analyzeProfile(anyString(), anyString());
+        assertNotEquals(fingerprint, QuarkusTransaction.requiringNew().call(
+            () -> Professional.<Professional>findById(testProfessional.id).screeningFingerprint));
+
+        // Bulk re-screening forces the LLM call even though nothing changed.
+        screeningService.screenProfessionalProfile(testProfessional.id, true);
+        Mockito.verify(mockProfileAnalyzer, Mockito.times(3)).analyzeProfile(anyString(), anyString());
+    }
+
     @Test
     @Transactional
     public void testScreenProfessionalProfile_ApiKeyNotConfigured() {
@@ -0,0 +1,129 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.MatchCandidateDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProfessionalSearchIndexTest {
+
+    private static MatchCandidateDTO candidate(long id, String profession, String summary, String about, String... skills) {
+        MatchCandidateDTO dto = new MatchCandidateDTO(id, "Pro " + id, profession, 5, summary, about);
+        dto.skills = List.of(skills);
+        return dto;
+    }
+
+    private static ProfessionalSearchIndex indexOf(MatchCandidateDTO... candidates) {
+        Map<Long, MatchCandidateDTO> pool = new LinkedHashMap<>();
+        for (MatchCandidateDTO candidate : candidates) {
+            pool.put(candidate.id, candidate);
+        }
+        ProfessionalSearchIndex index = new ProfessionalSearchIndex();
+        index.candidateLoader = new MatchCandidateLoader() {
+            @Override
+            public Map<Long, MatchCandidateDTO> loadAllVerified() {
+                return pool;
+            }
+        };
+        index.rebuild();
+        return index;
+    }
+
+    private static ProfessionalProfileChangedEvent changed(long id, boolean verified, String profession, String summary, String... skills) {
+        return new ProfessionalProfileChangedEvent(id, verified, "Pro " + id, 5, profession, summary, null, List.of(skills));
+    }
+
+    private static List<Long> ids(List<ProfessionalSearchIndex.ScoredProfessional> hits) {
+        return hits.stream().map(ProfessionalSearchIndex.ScoredProfessional::professionalId).toList();
+    }
+
+    @Test
+    public void testTokenizeDropsStopWordsAndFoldsPlurals() {
+        assertEquals(List.of("personal", "trainer", "therapy", "class"),
+            SearchTokenizer.tokenize("I need a Personal-Trainers for THERAPIES, classes!"));
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+        assertTrue(SearchTokenizer.tokenize("a to x").isEmpty());
+    }
+
+    @Test
+    public void testProfessionOutweighsPassingMention() {
+        ProfessionalSearchIndex index = indexOf(
+            candidate(1, "Yoga Instructor", "Vinyasa and hatha", null, "Yoga"),
+            candidate(2, "Personal Trainer", "Strength work, some yoga for mobility", null, "Strength"),
+            candidate(3, "Nutritionist", "Meal plans", null, "Nutrition"));
+
+        List<ProfessionalSearchIndex.ScoredProfessional> hits = index.search("yoga classes", 10);
+
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    public void testRareTermsScoreHigherThanCommonOnes() {
+        ProfessionalSearchIndex index = indexOf(
+            candidate(1, "Personal Trainer", "Marathon preparation", null),
+            candidate(2, "Personal Trainer", "Kettlebell circuits", null),
+            candidate(3, "Personal Trainer", "Group sessions", null));
+
+        List<ProfessionalSearchIndex.ScoredProfessional> hits = index.search("trainer marathon", 10);
+
+        assertEquals(1L, hits.get(0).professionalId());
+        assertEquals(3, hits.size());
+    }
+
+    @Test
+    public void testSearchRespectsLimitAndEmptyQuery() {
+        ProfessionalSearchIndex index = indexOf(
+            candidate(1, "Personal Trainer", null, null),
+            candidate(2, "Personal Trainer", null, null),
+            candidate(3, "Personal Trainer", null, null));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("trainer", 2)));
+        assertTrue(index.search("the and of", 10).isEmpty());
+        assertTrue(index.search("trainer", 0).isEmpty());
+    }
+
+    @Test
+    public void testProfileChangesUpdateTheIndexIncrementally() {
+        ProfessionalSearchIndex index = indexOf(
+            candidate(1, "Yoga Instructor", null, null),
+            candidate(2, "Personal Trainer", null, null));
+
+        index.onProfileChanged(changed(3, true, "Pilates Instructor", null, "Pilates"));
+        assertEquals(3, index.size());
+        assertEquals(List.of(3L), ids(index.search("pilates", 10)));
+
+        index.onProfileChanged(changed(1, true, "Swim Coach", null));
+        assertTrue(index.search("yoga", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("swim", 10)));
+
+        index.onProfileChanged(changed(2, false, "Personal Trainer", null));
+        assertEquals(2, index.size());
+        assertTrue(index.search("trainer", 10).isEmpty());
+    }
+
+    @Test
+    public void testChangesBeforeFirstBuildAreLeftToTheRebuild() {
+        ProfessionalSearchIndex index = new ProfessionalSearchIndex();
+
+        index.onProfileChanged(changed(1, true, "Yoga Instructor", null));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testTopReturnsFullestProfilesFirst() {
+        ProfessionalSearchIndex index = indexOf(
+            candidate(1, "Coach", null, null),
+            candidate(2, "Personal Trainer", "Strength and conditioning", "Ten years coaching athletes", "Strength"),
+            candidate(3, "Yoga Instructor", null, null));
+
+        assertEquals(List.of(2L, 3L), ids(index.top(2)));
+        assertEquals(3, index.top(10).size());
+        assertTrue(index.top(0).isEmpty());
+    }
+}
@@ -0,0 +1,192 @@
+package com.fitconnect.service;
+
+import com.fitconnect.dto.LLMStructuredMatchResponse;
+import com.fitconnect.dto.MatchResponseDTO;
+import com.fitconnect.dto.MatchedProfessionalDTO;
+import com.fitconnect.entity.Client;
+import com.fitconnect.entity.Professional;
+import com.fitconnect.entity.ProfileStatus;
+import com.fitconnect.entity.ServiceRequest;
+import com.fitconnect.llm.ProfessionalMatcherAiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Drives the shard and reduce path end to end through MatchingService: a token budget of a few profiles per
+ * shard forces the shortlist into several map calls, and only their winners may reach the reduce call.
+ */
+@QuarkusTest
+@TestProfile(ShardedMatchingTest.SmallShardProfile.class)
+public class ShardedMatchingTest {
+
+    private static final int PROFESSIONALS = 12;
+    private static final Pattern PROFILE_ID = Pattern.compile("ID: (\\d+),");
+
+    public static class SmallShardProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                Map.entry("quarkus.langchain4j.openai.api-key", "test-key"),
+                // About six of the test profiles per shard
+                Map.entry("fitconnect.matching.shard-token-budget", "400"),
+                Map.entry("fitconnect.llm.guard.matcher.max-concurrent", "16"),
+                Map.entry("fitconnect.llm.guard.matcher.permits-per-second", "1000"),
+                Map.entry("fitconnect.llm.guard.matcher.burst", "1000"),
+                Map.entry("fitconnect.match-precompute.enabled", "false"),
+                Map.entry("fitconnect.screening-queue.enabled", "false"),
+                Map.entry("fitconnect.rescreen.enabled", "false"));
+        }
+    }
+
+    @Inject
+    MatchingService matchingService;
+
+    @Inject
+    ProfessionalSearchIndex searchIndex;
+
+    @Inject
+    ProfessionalVectorIndex vectorIndex;
+
+    @Inject
+    MeterRegistry registry;
+
+    @InjectMock
+    ProfessionalMatcherAiService matcherAiService;
+
+    // Profile IDs of each findTopMatches call, in call order; the reduce call starts after every shard and is last.
+    private final List<Set<Long>> calls = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        calls.clear();
+        // Each call ranks its profiles in prompt order, i.e. retrieval order.
+        Mockito.when(matcherAiService.findTopMatches(any(), anyString())).thenAnswer(invocation -> {
+            Set<Long> ids = profileIds(invocation.getArgument(1));
+            calls.add(ids);
+            LLMStructuredMatchResponse response = new LLMStructuredMatchResponse();
+            response.setRankingRationale("Simulated ranking.");
+            response.setRankedProfessionals(new ArrayList<>());
+            int rank = 1;
+            for (Long id : ids) {
+                LLMStructuredMatchResponse.RankedProfessional ranked = new LLMStructuredMatchResponse.RankedProfessional();
+                ranked.setProfessionalId(id);
+                ranked.setRank(rank++);
+                response.getRankedProfessionals().add(ranked);
+                if (rank > 3) {
+                    break;
+                }
+            }
+            return response;
+        });
+    }
+
+    @Test
+    public void testShortlistIsRankedInShardsThenReduced() {
+        createVerifiedProfessionals();
+        searchIndex.rebuild();
+        vectorIndex.rebuild();
+        long reducesBefore = shardCalls("reduce");
+        long mapsBefore = shardCalls("map");
+
+        MatchResponseDTO response = matchingService.findMatchesForServiceRequest(createServiceRequest());
+
+        assertTrue(calls.size() >= 3, "Expected at least two shards and a reduce round, got " + calls.size() + " calls");
+        List<Set<Long>> shards = calls.subList(0, calls.size() - 1);
+        Set<Long> reduced = calls.get(calls.size() - 1);
+
+        // Every shortlisted profile is in exactly one shard.
+        Set<Long> shortlisted = new HashSet<>();
+        shards.forEach(shard -> shard.forEach(id -> assertTrue(shortlisted.add(id), "Profile " + id + " was in two shards")));
+        assertTrue(shortlisted.size() >= PROFESSIONALS);
+
+        // The reduce prompt holds the shard winners (top three of each) and nothing else.
+        Set<Long> winners = shards.stream()
+            .flatMap(shard -> shard.stream().limit(3))
+            .collect(Collectors.toSet());
+        assertEquals(winners, reduced);
+        assertTrue(reduced.size() < shortlisted.size());
+
+        List<Long> matched = response.getMatchedProfessionals().stream()
+            .map(MatchedProfessionalDTO::getId)
+            .collect(Collectors.toList());
+        assertEquals(reduced.stream().limit(3).collect(Collectors.toList()), matched);
+
+        assertEquals(1, shardCalls("reduce") - reducesBefore);
+        assertEquals(shards.size(), shardCalls("map") - mapsBefore);
+    }
+
+    private long shardCalls(String phase) {
+        return registry.find("fitconnect.matching.shard.duration").tag("phase", phase).timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    private static Set<Long> profileIds(String profiles) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Matcher matcher = PROFILE_ID.matcher(profiles);
+        while (matcher.find()) {
+            ids.add(Long.valueOf(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private void createVerifiedProfessionals() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < PROFESSIONALS; i++) {
+                Professional pro = new Professional();
+                pro.setName("Shard Coach " + i);
+                pro.setEmail("shard-" + UUID.randomUUID() + "@example.com");
+                pro.setPassword("irrelevant");
+                pro.profession = "Strength Coach";
+                pro.yearsOfExperience = 5 + i;
+                pro.summarizedSkills = "Strength training and kettlebell programming for beginners and athletes.";
+                pro.aboutYou = "I help clients build kettlebell strength safely, with programs adapted to their goals.";
+                pro.profileStatus = ProfileStatus.VERIFIED;
+                pro.persist();
+            }
+        });
+    }
+
+    private Long createServiceRequest() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Client client = new Client();
+            client.setName("Shard Client");
+            client.setEmail("shard-client-" + UUID.randomUUID() + "@example.com");
+            client.setPassword("irrelevant");
+            client.persist();
+
+            ServiceRequest request = new ServiceRequest();
+            request.setClient(client);
+            request.setCategory("Strength training");
+            // Unique text so the match result cache can't answer the request.
+            request.setServiceDescription("Kettlebell strength coaching " + UUID.randomUUID());
+            request.persist();
+            return request.id;
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.fitconnect.storage;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentStoreTest {
+
+    private static final byte[] CONTENT = "Certified kettlebell instructor, level 2.".getBytes(StandardCharsets.UTF_8);
+    private static final String CONTENT_HASH = HexFormat.of().formatHex(SpooledUpload.sha256().digest(CONTENT));
+
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testLocalStoreDeduplicatesByContent() throws IOException {
+        Path root = Files.createTempDirectory("documents");
+        LocalDocumentStore store = new LocalDocumentStore(root);
+
+        StoredDocument first = store.put(new ByteArrayInputStream(CONTENT));
+        StoredDocument second = store.put(new ByteArrayInputStream(CONTENT));
+
+        assertEquals(CONTENT_HASH, first.contentHash());
+        assertEquals(CONTENT.length, first.size());
+        assertFalse(first.deduplicated());
+        assertTrue(second.deduplicated());
+        assertArrayEquals(CONTENT, read(store.open(CONTENT_HASH)));
+        try (var files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count(), "Content is stored once and no spool file is left behind");
+        }
+        assertNull(store.open("0".repeat(64)));
+    }
+
+    @Test
+    public void testS3StoreAgainstLocalStandIn() throws IOException {
+        Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        AtomicInteger puts = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Minimal path-style S3: HEAD, GET and PUT of single objects.
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            assertNotNull(exchange.getRequestHeaders().getFirst("Authorization"), "Requests must be signed");
+            switch (exchange.getRequestMethod()) {
+                case "PUT":
+                    byte[] body = exchange.getRequestBody().readAllBytes();
+                    assertEquals(HexFormat.of().formatHex(SpooledUpload.sha256().digest(body)),
+                        exchange.getRequestHeaders().getFirst("x-amz-content-sha256"));
+                    objects.put(path, body);
+                    puts.incrementAndGet();
+                    exchange.sendResponseHeaders(200, -1);
+                    break;
+                case "HEAD":
+                    exchange.sendResponseHeaders(objects.containsKey(path) ? 200 : 404, -1);
+                    break;
+                default:
+                    byte[] object = objects.get(path);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                    } else {
+                        exchange.sendResponseHeaders(200, object.length);
+                        exchange.getResponseBody().write(object);
+                    }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        S3DocumentStore store = new S3DocumentStore(new S3DocumentStore.Settings(
+            URI.create("http://127.0.0.1:" + server.getAddress().getPort()), "us-east-1", "fitconnect-test", "documents/",
+            "test-access-key", "test-secret-key", Duration.ofSeconds(5)));
+
+        StoredDocument first = store.put(new ByteArrayInputStream(CONTENT));
+        StoredDocument second = store.put(new ByteArrayInputStream(CONTENT));
+
+        assertEquals(CONTENT_HASH, first.contentHash());
+        assertTrue(second.deduplicated());
+        assertEquals(1, puts.get(), "Known content is not uploaded again");
+        assertTrue(objects.containsKey("/fitconnect-test/documents/" + CONTENT_HASH.substring(0, 2) + "/" + CONTENT_HASH));
+        assertTrue(store.exists(CONTENT_HASH));
+        assertArrayEquals(CONTENT, read(store.open(CONTENT_HASH)));
+        assertNull(store.open("0".repeat(64)));
+    }
+
+    private static byte[] read(InputStream stream) throws IOException {
+        assertNotNull(stream);
+        try (stream) {
+            return stream.readAllBytes();
+        }
+    }
+}